@@ -0,0 +1,304 @@
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
+
+import Parallel_Common.ParallelRuntime;
+
+/**
+ * Multiplicación por lotes de muchas matrices pequeñas (8 x 8 a 64 x 64).
+ *
+ * Las matrices van empaquetadas una tras otra en un único arreglo por filas:
+ * la matriz i de un lote de n x n empieza en i * n * n. Así no hay matrices
+ * dentadas, ni comprobaciones de recursión, ni reservas por multiplicación.
+ * Los tamaños 8 y 16 tienen núcleos propios con el tamaño y los pasos de
+ * fila escritos como constantes; el resto de múltiplos de 8 usa un núcleo
+ * que mantiene 8 columnas de una fila de C en variables locales, y los
+ * demás tamaños el orden i-p-j. Los lotes grandes se
+ * reparten entre los hilos de ParallelRuntime en tramos de matrices consecutivas.
+ */
+public class BatchedMatrixMultiply {
+
+    // Elementos multiplicados (n^3 por matriz) por tarea antes de dividir el lote
+    private static final long GRAIN = 1 << 20;
+
+    /**
+     * C[i] = A[i] * B[i] para count matrices n x n empaquetadas, en paralelo
+     */
+    public static void multiply(double[] a, double[] b, double[] c, int n, int count) {
+        checkSizes(a, b, c, n, count);
+        ParallelRuntime.invoke(new BatchTask(a, b, c, n, 0, count));
+    }
+
+    /**
+     * C[i] = A[i] * B[i] para count matrices n x n empaquetadas, en el hilo llamador
+     */
+    public static void multiplySerial(double[] a, double[] b, double[] c, int n, int count) {
+        checkSizes(a, b, c, n, count);
+        multiplyRange(a, b, c, n, 0, count);
+    }
+
+    private static void checkSizes(double[] a, double[] b, double[] c, int n, int count) {
+        long needed = (long) n * n * count;
+        if (a.length < needed || b.length < needed || c.length < needed) {
+            throw new IllegalArgumentException("Los arreglos no contienen " + count + " matrices de " + n + "x" + n);
+        }
+    }
+
+    /**
+     * Divide el lote por la mitad hasta que cada tramo tiene unos GRAIN productos
+     */
+    private static class BatchTask extends RecursiveAction {
+        private final double[] a, b, c;
+        private final int n, start, end;
+
+        BatchTask(double[] a, double[] b, double[] c, int n, int start, int end) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.n = n;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            int count = end - start;
+            if (count > 1 && (long) count * n * n * n > GRAIN) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new BatchTask(a, b, c, n, start, mid),
+                          new BatchTask(a, b, c, n, mid, end));
+                return;
+            }
+            multiplyRange(a, b, c, n, start, end);
+        }
+    }
+
+    /**
+     * Elige el núcleo según el tamaño
+     */
+    private static void multiplyRange(double[] a, double[] b, double[] c, int n, int start, int end) {
+        int size = n * n;
+        switch (n) {
+            case 8:
+                for (int m = start; m < end; m++) {
+                    kernel8x8(a, b, c, m * 64);
+                }
+                break;
+            case 16:
+                for (int m = start; m < end; m++) {
+                    kernel16x16(a, b, c, m * 256);
+                }
+                break;
+            default:
+                if (n % 8 == 0) {
+                    for (int m = start; m < end; m++) {
+                        kernelBlocked8(n, a, b, c, m * size);
+                    }
+                } else {
+                    for (int m = start; m < end; m++) {
+                        kernelGeneric(n, a, b, c, m * size);
+                    }
+                }
+        }
+    }
+
+    /**
+     * Núcleo 8 x 8: cada fila de C completa en 8 variables locales, con
+     * bucles de 8 iteraciones y paso de fila 8 constantes
+     */
+    private static void kernel8x8(double[] a, double[] b, double[] c, int off) {
+        for (int i = 0; i < 8; i++) {
+            int ai = off + i * 8;
+            double c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0, c5 = 0, c6 = 0, c7 = 0;
+            for (int p = 0; p < 8; p++) {
+                double aip = a[ai + p];
+                int bp = off + p * 8;
+                c0 += aip * b[bp];
+                c1 += aip * b[bp + 1];
+                c2 += aip * b[bp + 2];
+                c3 += aip * b[bp + 3];
+                c4 += aip * b[bp + 4];
+                c5 += aip * b[bp + 5];
+                c6 += aip * b[bp + 6];
+                c7 += aip * b[bp + 7];
+            }
+            c[ai] = c0;
+            c[ai + 1] = c1;
+            c[ai + 2] = c2;
+            c[ai + 3] = c3;
+            c[ai + 4] = c4;
+            c[ai + 5] = c5;
+            c[ai + 6] = c6;
+            c[ai + 7] = c7;
+        }
+    }
+
+    /**
+     * Núcleo 16 x 16: cada fila de C en dos mitades de 8 columnas (8
+     * acumuladores por mitad, para no agotar los registros), con bucles de
+     * 16 iteraciones y paso de fila 16 constantes
+     */
+    private static void kernel16x16(double[] a, double[] b, double[] c, int off) {
+        for (int i = 0; i < 16; i++) {
+            int ai = off + i * 16;
+            for (int j = 0; j < 16; j += 8) {
+                double c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0, c5 = 0, c6 = 0, c7 = 0;
+                for (int p = 0; p < 16; p++) {
+                    double aip = a[ai + p];
+                    int bp = off + p * 16 + j;
+                    c0 += aip * b[bp];
+                    c1 += aip * b[bp + 1];
+                    c2 += aip * b[bp + 2];
+                    c3 += aip * b[bp + 3];
+                    c4 += aip * b[bp + 4];
+                    c5 += aip * b[bp + 5];
+                    c6 += aip * b[bp + 6];
+                    c7 += aip * b[bp + 7];
+                }
+                int cj = ai + j;
+                c[cj] = c0;
+                c[cj + 1] = c1;
+                c[cj + 2] = c2;
+                c[cj + 3] = c3;
+                c[cj + 4] = c4;
+                c[cj + 5] = c5;
+                c[cj + 6] = c6;
+                c[cj + 7] = c7;
+            }
+        }
+    }
+
+    /**
+     * Núcleo para cualquier n múltiplo de 8 (tamaño en tiempo de ejecución):
+     * para cada fila de C y cada bloque de 8 columnas, acumula en 8
+     * variables locales y escribe una sola vez
+     */
+    private static void kernelBlocked8(int n, double[] a, double[] b, double[] c, int off) {
+        for (int i = 0; i < n; i++) {
+            int ai = off + i * n;
+            int ci = off + i * n;
+            for (int j = 0; j < n; j += 8) {
+                double c0 = 0, c1 = 0, c2 = 0, c3 = 0, c4 = 0, c5 = 0, c6 = 0, c7 = 0;
+                int bp = off + j;
+                for (int p = 0; p < n; p++, bp += n) {
+                    double aip = a[ai + p];
+                    c0 += aip * b[bp];
+                    c1 += aip * b[bp + 1];
+                    c2 += aip * b[bp + 2];
+                    c3 += aip * b[bp + 3];
+                    c4 += aip * b[bp + 4];
+                    c5 += aip * b[bp + 5];
+                    c6 += aip * b[bp + 6];
+                    c7 += aip * b[bp + 7];
+                }
+                int cj = ci + j;
+                c[cj] = c0;
+                c[cj + 1] = c1;
+                c[cj + 2] = c2;
+                c[cj + 3] = c3;
+                c[cj + 4] = c4;
+                c[cj + 5] = c5;
+                c[cj + 6] = c6;
+                c[cj + 7] = c7;
+            }
+        }
+    }
+
+    private static void kernelGeneric(int n, double[] a, double[] b, double[] c, int off) {
+        for (int i = 0; i < n; i++) {
+            int ci = off + i * n;
+            for (int j = 0; j < n; j++) {
+                c[ci + j] = 0;
+            }
+            for (int p = 0; p < n; p++) {
+                double aip = a[ci + p];
+                int bp = off + p * n;
+                for (int j = 0; j < n; j++) {
+                    c[ci + j] += aip * b[bp + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Empaqueta matrices n x n dentadas en un único arreglo contiguo
+     */
+    public static double[] pack(double[][][] matrices) {
+        int count = matrices.length;
+        int n = count == 0 ? 0 : matrices[0].length;
+        double[] packed = new double[count * n * n];
+        for (int m = 0; m < count; m++) {
+            for (int i = 0; i < n; i++) {
+                System.arraycopy(matrices[m][i], 0, packed, (m * n + i) * n, n);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Compara el lote (serie y paralelo) con multiplySequential matriz a matriz
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 50000;
+        System.out.println("Multiplicando " + count + " pares de matrices " + n + "x" + n);
+
+        Random rand = new Random(0);
+        double[][][] As = new double[count][n][n];
+        double[][][] Bs = new double[count][n][n];
+        for (int m = 0; m < count; m++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    As[m][i][j] = rand.nextDouble() * 10;
+                    Bs[m][i][j] = rand.nextDouble() * 10;
+                }
+            }
+        }
+        double[] a = pack(As);
+        double[] b = pack(Bs);
+        double[] cSerial = new double[a.length];
+        double[] cParallel = new double[a.length];
+
+        // Calentar la JVM
+        for (int r = 0; r < 3; r++) {
+            multiplySerial(a, b, cSerial, n, Math.min(count, 1000));
+            multiply(a, b, cParallel, n, Math.min(count, 1000));
+            CoppersmithWinogradMatrixMultiplication.multiplySequential(As[0], Bs[0]);
+        }
+
+        long start = System.nanoTime();
+        double[][][] Cs = new double[count][][];
+        for (int m = 0; m < count; m++) {
+            Cs[m] = CoppersmithWinogradMatrixMultiplication.multiplySequential(As[m], Bs[m]);
+        }
+        long pairTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        multiplySerial(a, b, cSerial, n, count);
+        long serialTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        multiply(a, b, cParallel, n, count);
+        long parallelTime = System.nanoTime() - start;
+
+        double[] reference = pack(Cs);
+        double maxSerial = 0, maxParallel = 0, scale = 0;
+        for (int i = 0; i < reference.length; i++) {
+            maxSerial = Math.max(maxSerial, Math.abs(reference[i] - cSerial[i]));
+            maxParallel = Math.max(maxParallel, Math.abs(reference[i] - cParallel[i]));
+            scale = Math.max(scale, Math.abs(reference[i]));
+        }
+        double tolerance = 1e-9 * Math.max(1, scale);
+
+        System.out.println("\nResultados de rendimiento:");
+        System.out.printf("  - Matriz a matriz (multiplySequential): %.2f ms (%.0f ns por producto)%n",
+                          pairTime / 1e6, (double) pairTime / count);
+        System.out.printf("  - Lote en serie:                         %.2f ms (%.0f ns por producto)%n",
+                          serialTime / 1e6, (double) serialTime / count);
+        System.out.printf("  - Lote en paralelo:                      %.2f ms (%.0f ns por producto)%n",
+                          parallelTime / 1e6, (double) parallelTime / count);
+
+        System.out.println("\nVerificación de resultados:");
+        System.out.println("  - Lote en serie: " + (maxSerial < tolerance ? "Correcto" : "Incorrecto (diferencia " + maxSerial + ")"));
+        System.out.println("  - Lote en paralelo: " + (maxParallel < tolerance ? "Correcto" : "Incorrecto (diferencia " + maxParallel + ")"));
+    }
+}
@@ -1,9 +1,14 @@
 import java.util.concurrent.RecursiveAction;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
+import Parallel_Common.DenseMatrix;
+import Parallel_Common.Metrics;
+import Parallel_Common.ParallelRuntime;
+
 /**
  * Implementación del algoritmo de Coppersmith-Winograd para multiplicación de matrices
  * Incluye versión secuencial y dos versiones paralelas (ForkJoin y Threads tradicionales)
@@ -11,10 +16,14 @@ import java.util.Scanner;
 public class CoppersmithWinogradMatrixMultiplication {
     
     // Umbral para cambiar a multiplicación regular cuando las matrices son pequeñas
-    private static final int THRESHOLD = 128;
+    // (medido por MatrixTuning en cada máquina; 128 si no hay perfil)
+    private static final int THRESHOLD = MatrixTuning.threshold();
+    
+    // Niveles de recursión en los que la versión ForkJoin crea tareas paralelas
+    private static final int PARALLEL_DEPTH = MatrixTuning.parallelDepth();
     
-    // ForkJoinPool para la versión paralela
-    private static final ForkJoinPool FORK_JOIN_POOL = new ForkJoinPool();
+    // Niveles expandidos en la versión con hilos: 7^d >= hilos de ParallelRuntime
+    private static final int TRADITIONAL_DEPTH = MatrixTuning.defaultParallelDepth();
     
     /**
      * Implementación secuencial de Coppersmith-Winograd
@@ -39,280 +48,801 @@ public class CoppersmithWinogradMatrixMultiplication {
         double[][] b21 = subMatrix(B, newSize, 0, newSize);
         double[][] b22 = subMatrix(B, newSize, newSize, newSize);
         
-        // Calcular matrices intermedias (optimizaciones de Coppersmith-Winograd)
-        double[][] s1 = subtract(a21, a11);
-        double[][] s2 = add(a21, a22);
-        double[][] s3 = subtract(a12, a22);
-        double[][] s4 = subtract(b12, b11);
-        double[][] s5 = subtract(b22, b12);
-        double[][] s6 = subtract(b22, b21);
-        double[][] s7 = add(a11, a12);
-        double[][] s8 = add(a21, a22);
+        // Calcular matrices intermedias (sumas de Strassen)
+        double[][] s1 = add(a11, a22);
+        double[][] s2 = add(b11, b22);
+        double[][] s3 = add(a21, a22);
+        double[][] s4 = subtract(b12, b22);
+        double[][] s5 = subtract(b21, b11);
+        double[][] s6 = add(a11, a12);
+        double[][] s7 = subtract(a21, a11);
+        double[][] s8 = add(b11, b12);
+        double[][] s9 = subtract(a12, a22);
+        double[][] s10 = add(b21, b22);
         
         // Multiplicaciones recursivas (7 en lugar de 8 como en el algoritmo clásico)
-        double[][] p1 = multiplySequential(a11, b11);
-        double[][] p2 = multiplySequential(a12, b21);
-        double[][] p3 = multiplySequential(s1, s4);
-        double[][] p4 = multiplySequential(s2, s5);
-        double[][] p5 = multiplySequential(s3, s6);
-        double[][] p6 = multiplySequential(s7, b22);
-        double[][] p7 = multiplySequential(s8, b11);
+        double[][] p1 = multiplySequential(s1, s2);
+        double[][] p2 = multiplySequential(s3, b11);
+        double[][] p3 = multiplySequential(a11, s4);
+        double[][] p4 = multiplySequential(a22, s5);
+        double[][] p5 = multiplySequential(s6, b22);
+        double[][] p6 = multiplySequential(s7, s8);
+        double[][] p7 = multiplySequential(s9, s10);
         
         // Calcular submatrices del resultado
-        double[][] c11 = add(subtract(add(p1, p2), p3), p4);
-        double[][] c12 = add(p5, p6);
-        double[][] c21 = add(p3, p7);
-        double[][] c22 = subtract(add(p4, p5), p7);
+        double[][] c11 = add(subtract(add(p1, p4), p5), p7);
+        double[][] c12 = add(p3, p5);
+        double[][] c21 = add(p2, p4);
+        double[][] c22 = add(add(subtract(p1, p2), p3), p6);
         
         // Combinar las submatrices en el resultado
         return combineMatrices(c11, c12, c21, c22, n);
     }
     
+    /**
+     * Implementación secuencial sin copias: las submatrices son vistas
+     * (arreglo, desplazamiento, paso de fila) sobre matrices planas y los
+     * temporales salen de un espacio de trabajo reservado una vez por nivel.
+     * Acepta matrices rectangulares de cualquier tamaño (m x k por k x n)
+     */
+    public static double[][] multiplySequentialViews(double[][] A, double[][] B) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        if (m > 0 && A[0].length != k) {
+            throw new IllegalArgumentException("Dimensiones incompatibles: " + m + "x" + A[0].length
+                                               + " por " + k + "x" + n);
+        }
+        double[] a = flatten(A);
+        double[] b = flatten(B);
+        double[] c = new double[m * n];
+        
+        strassenView(a, 0, k, b, 0, n, c, 0, n, m, n, k, new Workspace(m, n, k), 0);
+        
+        return unflatten(c, m, n);
+    }
+    
+    /**
+     * Versión sin copias sobre DenseMatrix: C = A * B en una matriz nueva
+     */
+    public static DenseMatrix multiply(DenseMatrix A, DenseMatrix B) {
+        DenseMatrix C = DenseMatrix.heap(A.rows(), B.cols());
+        multiply(A, B, C);
+        return C;
+    }
+    
+    /**
+     * C = A * B escribiendo en la vista C. Las vistas en el heap (bloques de
+     * matrices mayores incluidos) se usan directamente con su paso de fila.
+     * Las de fuera del heap se rechazan en lugar de copiarse enteras; quien
+     * quiera la copia la hace con heapCopy() (o multiplica por bloques con view)
+     */
+    public static void multiply(DenseMatrix A, DenseMatrix B, DenseMatrix C) {
+        int m = A.rows();
+        int k = A.cols();
+        int n = B.cols();
+        if (B.rows() != k || C.rows() != m || C.cols() != n) {
+            throw new IllegalArgumentException("Dimensiones incompatibles: " + m + "x" + k + " por "
+                                               + B.rows() + "x" + n + " en " + C.rows() + "x" + C.cols());
+        }
+        String reason = "la multiplicación trabaja sobre arreglos; copiar con heapCopy()";
+        DenseMatrix a = A.requireHeap(reason);
+        DenseMatrix b = B.requireHeap(reason);
+        DenseMatrix c = C.requireHeap(reason);
+        
+        strassenView(a.array(), (int) a.offset(), (int) a.stride(),
+                     b.array(), (int) b.offset(), (int) b.stride(),
+                     c.array(), (int) c.offset(), (int) c.stride(),
+                     m, n, k, new Workspace(m, n, k), 0);
+    }
+    
+    /**
+     * Temporales de la recursión con vistas: por cada nivel, una suma de A,
+     * una suma de B y un producto con las dimensiones (mitades pares) de ese
+     * nivel. Solo hay un nivel activo a la vez, así que O(mk + kn + mn) en total.
+     * También fija el umbral de recursión de la multiplicación que lo usa
+     */
+    private static final class Workspace {
+        final int threshold;
+        final double[][] sumA;
+        final double[][] sumB;
+        final double[][] product;
+        
+        Workspace(int m, int n, int k) {
+            this(m, n, k, THRESHOLD);
+        }
+        
+        Workspace(int m, int n, int k, int threshold) {
+            this.threshold = threshold;
+            int levels = 0;
+            for (int mm = m, nn = n, kk = k; recurses(mm, nn, kk); mm /= 2, nn /= 2, kk /= 2) {
+                levels++;
+            }
+            sumA = new double[levels][];
+            sumB = new double[levels][];
+            product = new double[levels][];
+            int mh = m / 2, nh = n / 2, kh = k / 2;
+            for (int l = 0; l < levels; l++, mh /= 2, nh /= 2, kh /= 2) {
+                sumA[l] = new double[mh * kh];
+                sumB[l] = new double[kh * nh];
+                product[l] = new double[mh * nh];
+            }
+        }
+        
+        boolean recurses(int m, int n, int k) {
+            return Math.min(m, Math.min(n, k)) > threshold;
+        }
+    }
+    
+    /**
+     * Indica si un producto m x k por k x n se divide otro nivel o va al núcleo directo
+     */
+    private static boolean recurses(int m, int n, int k) {
+        return Math.min(m, Math.min(n, k)) > THRESHOLD;
+    }
+    
+    /**
+     * C = A * B sobre vistas (m x k por k x n). La parte par (m, n y k
+     * redondeados hacia abajo a par) se resuelve con Strassen; cada producto
+     * se calcula en el temporal del nivel y se acumula en los cuadrantes de C.
+     * La fila, columna o índice interno sobrante se corrige después con el
+     * núcleo directo (peeling dinámico), sin rellenar a potencia de 2
+     */
+    private static void strassenView(double[] a, int aOff, int lda,
+                                     double[] b, int bOff, int ldb,
+                                     double[] c, int cOff, int ldc,
+                                     int m, int n, int k, Workspace ws, int level) {
+        // Caso base: matrices pequeñas (en alguna dimensión)
+        if (!ws.recurses(m, n, k)) {
+            multiplyDirectlyView(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k);
+            return;
+        }
+        
+        int mh = m / 2, nh = n / 2, kh = k / 2;
+        int a11 = aOff, a12 = aOff + kh, a21 = aOff + mh * lda, a22 = a21 + kh;
+        int b11 = bOff, b12 = bOff + nh, b21 = bOff + kh * ldb, b22 = b21 + nh;
+        int c11 = cOff, c12 = cOff + nh, c21 = cOff + mh * ldc, c22 = c21 + nh;
+        double[] sa = ws.sumA[level];
+        double[] sb = ws.sumB[level];
+        double[] p = ws.product[level];
+        
+        // p1 = (a11 + a22)(b11 + b22) -> c11 = p1, c22 = p1
+        combineView(sa, 0, kh, a, a11, lda, a, a22, lda, mh, kh, 1);
+        combineView(sb, 0, nh, b, b11, ldb, b, b22, ldb, kh, nh, 1);
+        strassenView(sa, 0, kh, sb, 0, nh, p, 0, nh, mh, nh, kh, ws, level + 1);
+        copyView(c, c11, ldc, p, 0, nh, mh, nh);
+        copyView(c, c22, ldc, p, 0, nh, mh, nh);
+        
+        // p2 = (a21 + a22) b11 -> c21 = p2, c22 -= p2
+        combineView(sa, 0, kh, a, a21, lda, a, a22, lda, mh, kh, 1);
+        strassenView(sa, 0, kh, b, b11, ldb, p, 0, nh, mh, nh, kh, ws, level + 1);
+        copyView(c, c21, ldc, p, 0, nh, mh, nh);
+        accumulateView(c, c22, ldc, p, 0, nh, mh, nh, -1);
+        
+        // p3 = a11 (b12 - b22) -> c12 = p3, c22 += p3
+        combineView(sb, 0, nh, b, b12, ldb, b, b22, ldb, kh, nh, -1);
+        strassenView(a, a11, lda, sb, 0, nh, p, 0, nh, mh, nh, kh, ws, level + 1);
+        copyView(c, c12, ldc, p, 0, nh, mh, nh);
+        accumulateView(c, c22, ldc, p, 0, nh, mh, nh, 1);
+        
+        // p4 = a22 (b21 - b11) -> c11 += p4, c21 += p4
+        combineView(sb, 0, nh, b, b21, ldb, b, b11, ldb, kh, nh, -1);
+        strassenView(a, a22, lda, sb, 0, nh, p, 0, nh, mh, nh, kh, ws, level + 1);
+        accumulateView(c, c11, ldc, p, 0, nh, mh, nh, 1);
+        accumulateView(c, c21, ldc, p, 0, nh, mh, nh, 1);
+        
+        // p5 = (a11 + a12) b22 -> c11 -= p5, c12 += p5
+        combineView(sa, 0, kh, a, a11, lda, a, a12, lda, mh, kh, 1);
+        strassenView(sa, 0, kh, b, b22, ldb, p, 0, nh, mh, nh, kh, ws, level + 1);
+        accumulateView(c, c11, ldc, p, 0, nh, mh, nh, -1);
+        accumulateView(c, c12, ldc, p, 0, nh, mh, nh, 1);
+        
+        // p6 = (a21 - a11)(b11 + b12) -> c22 += p6
+        combineView(sa, 0, kh, a, a21, lda, a, a11, lda, mh, kh, -1);
+        combineView(sb, 0, nh, b, b11, ldb, b, b12, ldb, kh, nh, 1);
+        strassenView(sa, 0, kh, sb, 0, nh, p, 0, nh, mh, nh, kh, ws, level + 1);
+        accumulateView(c, c22, ldc, p, 0, nh, mh, nh, 1);
+        
+        // p7 = (a12 - a22)(b21 + b22) -> c11 += p7
+        combineView(sa, 0, kh, a, a12, lda, a, a22, lda, mh, kh, -1);
+        combineView(sb, 0, nh, b, b21, ldb, b, b22, ldb, kh, nh, 1);
+        strassenView(sa, 0, kh, sb, 0, nh, p, 0, nh, mh, nh, kh, ws, level + 1);
+        accumulateView(c, c11, ldc, p, 0, nh, mh, nh, 1);
+        
+        peel(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k);
+    }
+    
+    /**
+     * Correcciones del peeling dinámico cuando m, n o k son impares: la
+     * Strassen par solo calculó C[0:2mh, 0:2nh] con k redondeado a par
+     */
+    private static void peel(double[] a, int aOff, int lda,
+                             double[] b, int bOff, int ldb,
+                             double[] c, int cOff, int ldc,
+                             int m, int n, int k) {
+        int m2 = m & ~1, n2 = n & ~1, k2 = k & ~1;
+        
+        // k impar: C[0:m2, 0:n2] += A[0:m2, k-1] * B[k-1, 0:n2]
+        if (k2 < k) {
+            multiplyDirectlyView(a, aOff + k2, lda, b, bOff + k2 * ldb, ldb, c, cOff, ldc,
+                                 m2, n2, 1, true);
+        }
+        // n impar: última columna completa C[0:m2, n-1]
+        if (n2 < n) {
+            multiplyDirectlyView(a, aOff, lda, b, bOff + n2, ldb, c, cOff + n2, ldc,
+                                 m2, 1, k, false);
+        }
+        // m impar: última fila completa C[m-1, 0:n]
+        if (m2 < m) {
+            multiplyDirectlyView(a, aOff + m2 * lda, lda, b, bOff, ldb, c, cOff + m2 * ldc, ldc,
+                                 1, n, k, false);
+        }
+    }
+    
+    /**
+     * Variante de Winograd de Strassen (7 productos, 15 sumas) sin copias.
+     * Las sumas se escriben sobre los cuadrantes de C y tres temporales por
+     * nivel, y las combinaciones finales se hacen en un único recorrido
+     */
+    public static double[][] multiplyWinograd(double[][] A, double[][] B) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        double[] a = flatten(A);
+        double[] b = flatten(B);
+        double[] c = new double[m * n];
+        
+        winogradView(a, 0, k, b, 0, n, c, 0, n, m, n, k, new Workspace(m, n, k), 0);
+        
+        return unflatten(c, m, n);
+    }
+    
+    /**
+     * C = A * B con el esquema de Winograd. Con X = sumA, Y = sumB y Z = product
+     * del nivel, el orden de cálculo es:
+     *   X = a11 - a21, Y = b22 - b12, c21 = X Y              (p7)
+     *   X = a21 + a22, Y = b12 - b11, c22 = X Y              (p5)
+     *   X = X - a11,   Y = b22 - Y,   c12 = X Y              (p6)
+     *   X = a12 - X,                  c11 = X b22            (p3)
+     *   Z = a11 b11                                          (p1)
+     *   un recorrido: c21 = p1 + p6 + p7, c22 = c21 + p5, c12 = p1 + p6 + p5 + p3
+     *   Y = b21 - Y,                  c21 += a22 Y           (-p4)
+     *   c11 = Z + a12 b21                                    (p1 + p2)
+     * En las hojas, los dos últimos pasos acumulan el producto directamente en C
+     */
+    private static void winogradView(double[] a, int aOff, int lda,
+                                     double[] b, int bOff, int ldb,
+                                     double[] c, int cOff, int ldc,
+                                     int m, int n, int k, Workspace ws, int level) {
+        // Caso base: matrices pequeñas (en alguna dimensión)
+        if (!ws.recurses(m, n, k)) {
+            multiplyDirectlyView(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k);
+            return;
+        }
+        
+        int mh = m / 2, nh = n / 2, kh = k / 2;
+        int a11 = aOff, a12 = aOff + kh, a21 = aOff + mh * lda, a22 = a21 + kh;
+        int b11 = bOff, b12 = bOff + nh, b21 = bOff + kh * ldb, b22 = b21 + nh;
+        int c11 = cOff, c12 = cOff + nh, c21 = cOff + mh * ldc, c22 = c21 + nh;
+        double[] x = ws.sumA[level];
+        double[] y = ws.sumB[level];
+        double[] z = ws.product[level];
+        boolean leafChildren = !ws.recurses(mh, nh, kh);
+        
+        combineView(x, 0, kh, a, a11, lda, a, a21, lda, mh, kh, -1);
+        combineView(y, 0, nh, b, b22, ldb, b, b12, ldb, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c21, ldc, mh, nh, kh, ws, level + 1);
+        
+        combineView(x, 0, kh, a, a21, lda, a, a22, lda, mh, kh, 1);
+        combineView(y, 0, nh, b, b12, ldb, b, b11, ldb, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c22, ldc, mh, nh, kh, ws, level + 1);
+        
+        combineView(x, 0, kh, x, 0, kh, a, a11, lda, mh, kh, -1);
+        combineView(y, 0, nh, b, b22, ldb, y, 0, nh, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c12, ldc, mh, nh, kh, ws, level + 1);
+        
+        combineView(x, 0, kh, a, a12, lda, x, 0, kh, mh, kh, -1);
+        winogradView(x, 0, kh, b, b22, ldb, c, c11, ldc, mh, nh, kh, ws, level + 1);
+        
+        winogradView(a, a11, lda, b, b11, ldb, z, 0, nh, mh, nh, kh, ws, level + 1);
+        
+        // Un solo recorrido para las sumas u2..u7 sobre los cuatro cuadrantes
+        long t = Metrics.start();
+        for (int i = 0; i < mh; i++) {
+            int r11 = c11 + i * ldc, r12 = c12 + i * ldc, r21 = c21 + i * ldc, r22 = c22 + i * ldc;
+            int rz = i * nh;
+            for (int j = 0; j < nh; j++) {
+                double u2 = z[rz + j] + c[r12 + j];
+                double u3 = u2 + c[r21 + j];
+                double p5 = c[r22 + j];
+                c[r21 + j] = u3;
+                c[r22 + j] = u3 + p5;
+                c[r12 + j] = u2 + p5 + c[r11 + j];
+            }
+        }
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
+        
+        // Y = b21 - t2 = -t4, así que c21 - p4 = c21 + a22 Y
+        combineView(y, 0, nh, b, b21, ldb, y, 0, nh, kh, nh, -1);
+        if (leafChildren) {
+            multiplyDirectlyView(a, a22, lda, y, 0, nh, c, c21, ldc, mh, nh, kh, true);
+        } else {
+            winogradView(a, a22, lda, y, 0, nh, c, c11, ldc, mh, nh, kh, ws, level + 1);
+            accumulateView(c, c21, ldc, c, c11, ldc, mh, nh, 1);
+        }
+        
+        // c11 = p1 + p2
+        if (leafChildren) {
+            copyView(c, c11, ldc, z, 0, nh, mh, nh);
+            multiplyDirectlyView(a, a12, lda, b, b21, ldb, c, c11, ldc, mh, nh, kh, true);
+        } else {
+            winogradView(a, a12, lda, b, b21, ldb, c, c11, ldc, mh, nh, kh, ws, level + 1);
+            accumulateView(c, c11, ldc, z, 0, nh, mh, nh, 1);
+        }
+        
+        peel(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k);
+    }
+    
     /**
      * Implementación paralela de Coppersmith-Winograd usando ForkJoinPool
      */
     public static double[][] multiplyParallel(double[][] A, double[][] B) {
-        CWMultiplyTask task = new CWMultiplyTask(A, B);
-        FORK_JOIN_POOL.invoke(task);
-        return task.getResult();
+        return multiplyParallel(A, B, PARALLEL_DEPTH);
+    }
+    
+    /**
+     * Versión ForkJoin sobre vistas (acepta m x k por k x n). Solo crea tareas
+     * en los primeros maxDepth niveles; por debajo cada tarea continúa con la
+     * recursión secuencial sin copias y su propio espacio de trabajo
+     */
+    static double[][] multiplyParallel(double[][] A, double[][] B, int maxDepth) {
+        return multiplyParallel(A, B, maxDepth, THRESHOLD);
+    }
+    
+    /**
+     * Igual, con un umbral de recursión dado en lugar del del perfil (para
+     * que MatrixTuning mida la profundidad con el umbral que acaba de elegir)
+     */
+    static double[][] multiplyParallel(double[][] A, double[][] B, int maxDepth, int threshold) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        double[] a = flatten(A);
+        double[] b = flatten(B);
+        double[] c = new double[m * n];
+        
+        ParallelRuntime.invoke(new CWMultiplyTask(new Operand(a, 0, k), new Operand(b, 0, n),
+                                                 c, 0, n, m, n, k, 0, maxDepth, threshold));
+        
+        return unflatten(c, m, n);
+    }
+    
+    /**
+     * Operando de una tarea: una vista x, o la suma x + sign * y de dos vistas
+     * que la propia tarea materializa, de modo que las sumas previas a los
+     * productos también se calculan en paralelo
+     */
+    private static final class Operand {
+        final double[] x;
+        final int xOff, ldx;
+        final double[] y;
+        final int yOff, ldy;
+        final double sign;
+        
+        Operand(double[] x, int xOff, int ldx) {
+            this(x, xOff, ldx, null, 0, 0, 0);
+        }
+        
+        Operand(double[] x, int xOff, int ldx, double[] y, int yOff, int ldy, double sign) {
+            this.x = x;
+            this.xOff = xOff;
+            this.ldx = ldx;
+            this.y = y;
+            this.yOff = yOff;
+            this.ldy = ldy;
+            this.sign = sign;
+        }
+        
+        /**
+         * Devuelve una vista simple: la misma si no hay suma, o un temporal rows x cols
+         */
+        Operand materialize(int rows, int cols) {
+            if (y == null) {
+                return this;
+            }
+            double[] sum = new double[rows * cols];
+            combineView(sum, 0, cols, x, xOff, ldx, y, yOff, ldy, rows, cols, sign);
+            return new Operand(sum, 0, cols);
+        }
     }
     
     /**
-     * Clase para tareas recursivas en ForkJoinPool
+     * Tarea ForkJoin que escribe A * B directamente en la vista de salida que
+     * le pasa quien la crea; no reserva el resultado por adelantado
      */
     private static class CWMultiplyTask extends RecursiveAction {
-        private double[][] A;
-        private double[][] B;
-        private double[][] result;
+        private final Operand A;
+        private final Operand B;
+        private final double[] c;
+        private final int cOff, ldc;
+        private final int m, n, k;
+        private final int depth;
+        private final int maxDepth;
+        private final int threshold;
         
-        public CWMultiplyTask(double[][] A, double[][] B) {
+        CWMultiplyTask(Operand A, Operand B, double[] c, int cOff, int ldc,
+                       int m, int n, int k, int depth, int maxDepth, int threshold) {
             this.A = A;
             this.B = B;
-            this.result = new double[A.length][B[0].length];
-        }
-        
-        public double[][] getResult() {
-            return result;
+            this.c = c;
+            this.cOff = cOff;
+            this.ldc = ldc;
+            this.m = m;
+            this.n = n;
+            this.k = k;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.threshold = threshold;
         }
         
         @Override
         protected void compute() {
-            int n = A.length;
+            Operand a = A.materialize(m, k);
+            Operand b = B.materialize(k, n);
             
-            // Caso base: matrices pequeñas
-            if (n <= THRESHOLD) {
-                result = multiplyDirectly(A, B);
+            // Caso base, o por debajo del corte de paralelismo: recursión secuencial
+            if (depth >= maxDepth || Math.min(m, Math.min(n, k)) <= threshold) {
+                strassenView(a.x, a.xOff, a.ldx, b.x, b.xOff, b.ldx, c, cOff, ldc,
+                             m, n, k, new Workspace(m, n, k, threshold), 0);
                 return;
             }
             
-            // Dividir las matrices en submatrices
-            int newSize = n / 2;
-            double[][] a11 = subMatrix(A, 0, 0, newSize);
-            double[][] a12 = subMatrix(A, 0, newSize, newSize);
-            double[][] a21 = subMatrix(A, newSize, 0, newSize);
-            double[][] a22 = subMatrix(A, newSize, newSize, newSize);
-            
-            double[][] b11 = subMatrix(B, 0, 0, newSize);
-            double[][] b12 = subMatrix(B, 0, newSize, newSize);
-            double[][] b21 = subMatrix(B, newSize, 0, newSize);
-            double[][] b22 = subMatrix(B, newSize, newSize, newSize);
-            
-            // Calcular matrices intermedias
-            double[][] s1 = subtract(a21, a11);
-            double[][] s2 = add(a21, a22);
-            double[][] s3 = subtract(a12, a22);
-            double[][] s4 = subtract(b12, b11);
-            double[][] s5 = subtract(b22, b12);
-            double[][] s6 = subtract(b22, b21);
-            double[][] s7 = add(a11, a12);
-            double[][] s8 = add(a21, a22);
+            int mh = m / 2, nh = n / 2, kh = k / 2;
+            double[] ax = a.x, bx = b.x;
+            int lda = a.ldx, ldb = b.ldx;
+            int a11 = a.xOff, a12 = a11 + kh, a21 = a11 + mh * lda, a22 = a21 + kh;
+            int b11 = b.xOff, b12 = b11 + nh, b21 = b11 + kh * ldb, b22 = b21 + nh;
             
-            // Crear tareas para las multiplicaciones
-            CWMultiplyTask p1Task = new CWMultiplyTask(a11, b11);
-            CWMultiplyTask p2Task = new CWMultiplyTask(a12, b21);
-            CWMultiplyTask p3Task = new CWMultiplyTask(s1, s4);
-            CWMultiplyTask p4Task = new CWMultiplyTask(s2, s5);
-            CWMultiplyTask p5Task = new CWMultiplyTask(s3, s6);
-            CWMultiplyTask p6Task = new CWMultiplyTask(s7, b22);
-            CWMultiplyTask p7Task = new CWMultiplyTask(s8, b11);
+            // Cada producto se escribe en su propio temporal (uno por tarea hija)
+            double[][] p = new double[7][mh * nh];
+            int d = depth + 1;
+            invokeAll(
+                new CWMultiplyTask(new Operand(ax, a11, lda, ax, a22, lda, 1),
+                                   new Operand(bx, b11, ldb, bx, b22, ldb, 1), p[0], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a21, lda, ax, a22, lda, 1),
+                                   new Operand(bx, b11, ldb), p[1], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a11, lda),
+                                   new Operand(bx, b12, ldb, bx, b22, ldb, -1), p[2], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a22, lda),
+                                   new Operand(bx, b21, ldb, bx, b11, ldb, -1), p[3], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a11, lda, ax, a12, lda, 1),
+                                   new Operand(bx, b22, ldb), p[4], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a21, lda, ax, a11, lda, -1),
+                                   new Operand(bx, b11, ldb, bx, b12, ldb, 1), p[5], 0, nh, mh, nh, kh, d, maxDepth, threshold),
+                new CWMultiplyTask(new Operand(ax, a12, lda, ax, a22, lda, -1),
+                                   new Operand(bx, b21, ldb, bx, b22, ldb, 1), p[6], 0, nh, mh, nh, kh, d, maxDepth, threshold));
             
-            // Invocar las tareas en paralelo
-            invokeAll(p1Task, p2Task, p3Task, p4Task, p5Task, p6Task, p7Task);
+            // Sumas posteriores a los productos, repartidas por filas
+            new CombineTask(p, c, cOff, ldc, 0, mh, nh).compute();
             
-            // Obtener resultados
-            double[][] p1 = p1Task.getResult();
-            double[][] p2 = p2Task.getResult();
-            double[][] p3 = p3Task.getResult();
-            double[][] p4 = p4Task.getResult();
-            double[][] p5 = p5Task.getResult();
-            double[][] p6 = p6Task.getResult();
-            double[][] p7 = p7Task.getResult();
-            
-            // Calcular submatrices del resultado
-            double[][] c11 = add(subtract(add(p1, p2), p3), p4);
-            double[][] c12 = add(p5, p6);
-            double[][] c21 = add(p3, p7);
-            double[][] c22 = subtract(add(p4, p5), p7);
-            
-            // Combinar las submatrices en el resultado
-            result = combineMatrices(c11, c12, c21, c22, n);
+            peel(ax, a.xOff, lda, bx, b.xOff, ldb, c, cOff, ldc, m, n, k);
         }
     }
     
     /**
-     * IMPLEMENTACIÓN CORRECTA: Paralela con hilos tradicionales
-     * Utilizando el mismo algoritmo de Coppersmith-Winograd pero con hilos tradicionales
+     * Combina los siete productos en los cuatro cuadrantes de C en un solo
+     * recorrido, dividiendo el rango de filas entre tareas:
+     * c11 = p1 + p4 - p5 + p7, c12 = p3 + p5, c21 = p2 + p4, c22 = p1 - p2 + p3 + p6
      */
-    public static double[][] multiplyParallelTraditional(double[][] A, double[][] B) {
-        int n = A.length;
+    private static class CombineTask extends RecursiveAction {
+        // Elementos por cuadrante por debajo de los cuales no se divide más
+        private static final int GRAIN = 1 << 14;
         
-        // Para matrices pequeñas usar el método directo
-        if (n <= THRESHOLD) {
-            return multiplyDirectly(A, B);
-        }
+        private final double[][] p;
+        private final double[] c;
+        private final int cOff, ldc;
+        private final int rowStart, rowEnd, h;
+        private final int mh;
         
-        // Dividir las matrices en submatrices
-        int newSize = n / 2;
-        double[][] a11 = subMatrix(A, 0, 0, newSize);
-        double[][] a12 = subMatrix(A, 0, newSize, newSize);
-        double[][] a21 = subMatrix(A, newSize, 0, newSize);
-        double[][] a22 = subMatrix(A, newSize, newSize, newSize);
+        CombineTask(double[][] p, double[] c, int cOff, int ldc, int rowStart, int rowEnd, int nh) {
+            this(p, c, cOff, ldc, rowStart, rowEnd, nh, rowEnd - rowStart);
+        }
         
-        double[][] b11 = subMatrix(B, 0, 0, newSize);
-        double[][] b12 = subMatrix(B, 0, newSize, newSize);
-        double[][] b21 = subMatrix(B, newSize, 0, newSize);
-        double[][] b22 = subMatrix(B, newSize, newSize, newSize);
+        private CombineTask(double[][] p, double[] c, int cOff, int ldc,
+                            int rowStart, int rowEnd, int nh, int mh) {
+            this.p = p;
+            this.c = c;
+            this.cOff = cOff;
+            this.ldc = ldc;
+            this.rowStart = rowStart;
+            this.rowEnd = rowEnd;
+            this.h = nh;
+            this.mh = mh;
+        }
         
-        // Calcular matrices intermedias
-        double[][] s1 = subtract(a21, a11);
-        double[][] s2 = add(a21, a22);
-        double[][] s3 = subtract(a12, a22);
-        double[][] s4 = subtract(b12, b11);
-        double[][] s5 = subtract(b22, b12);
-        double[][] s6 = subtract(b22, b21);
-        double[][] s7 = add(a11, a12);
-        double[][] s8 = add(a21, a22);
-        
-        // Arreglos para almacenar resultados
-        final double[][][] results = new double[7][][];
-        
-        // Usar CountDownLatch para sincronización
-        final CountDownLatch latch = new CountDownLatch(7);
-        
-        // Crear e iniciar hilos para las 7 multiplicaciones
-        Thread t1 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[0] = multiplySequential(a11, b11);
-                latch.countDown();
+        @Override
+        protected void compute() {
+            int rows = rowEnd - rowStart;
+            if (rows > 1 && (long) rows * h > GRAIN) {
+                int mid = (rowStart + rowEnd) >>> 1;
+                invokeAll(new CombineTask(p, c, cOff, ldc, rowStart, mid, h, mh),
+                          new CombineTask(p, c, cOff, ldc, mid, rowEnd, h, mh));
+                return;
             }
-        });
-        
-        Thread t2 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[1] = multiplySequential(a12, b21);
-                latch.countDown();
+            combineProducts(p, c, cOff, ldc, rowStart, rowEnd, mh, h);
+        }
+    }
+    
+    /**
+     * Filas [rowStart, rowEnd) de la combinación de los siete productos
+     * (mh x nh cada uno) en los cuadrantes de C
+     */
+    private static void combineProducts(double[][] p, double[] c, int cOff, int ldc,
+                                        int rowStart, int rowEnd, int mh, int nh) {
+        long t = Metrics.start();
+        double[] p1 = p[0], p2 = p[1], p3 = p[2], p4 = p[3], p5 = p[4], p6 = p[5], p7 = p[6];
+        for (int i = rowStart; i < rowEnd; i++) {
+            int top = cOff + i * ldc;
+            int bottom = cOff + (i + mh) * ldc;
+            int pi = i * nh;
+            for (int j = 0; j < nh; j++) {
+                int q = pi + j;
+                c[top + j] = p1[q] + p4[q] - p5[q] + p7[q];
+                c[top + nh + j] = p3[q] + p5[q];
+                c[bottom + j] = p2[q] + p4[q];
+                c[bottom + nh + j] = p1[q] - p2[q] + p3[q] + p6[q];
             }
-        });
+        }
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
+    }
+    
+    /**
+     * Paralela con trabajos independientes sobre los hilos compartidos de
+     * ParallelRuntime. Los primeros niveles de la recursión se expanden en el
+     * hilo llamador hasta tener 7^d subproblemas (d = log7 de los hilos),
+     * cada hoja se resuelve en el pool con la recursión secuencial sin copias
+     * y los resultados se combinan de abajo hacia arriba, también en el pool.
+     * Ninguna tarea espera a otra dentro del pool, así que no hay bloqueos
+     */
+    public static double[][] multiplyParallelTraditional(double[][] A, double[][] B) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        double[] a = flatten(A);
+        double[] b = flatten(B);
+        double[] c = new double[m * n];
         
-        Thread t3 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[2] = multiplySequential(s1, s4);
-                latch.countDown();
-            }
-        });
+        Subproblem root = new Subproblem(new Operand(a, 0, k), new Operand(b, 0, n), c, 0, n, m, n, k);
+        List<List<Subproblem>> levels = new ArrayList<>();
+        List<Subproblem> leaves = new ArrayList<>();
+        List<Subproblem> current = Collections.singletonList(root);
         
-        Thread t4 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[3] = multiplySequential(s2, s5);
-                latch.countDown();
+        // Expandir nivel a nivel; las sumas de cada nivel se materializan en el pool
+        for (int level = 0; level < TRADITIONAL_DEPTH && !current.isEmpty(); level++) {
+            List<Subproblem> next = new ArrayList<>();
+            List<Subproblem> expanded = new ArrayList<>();
+            List<Runnable> jobs = new ArrayList<>();
+            for (Subproblem node : current) {
+                if (recurses(node.m, node.n, node.k)) {
+                    jobs.add(node::materialize);
+                    expanded.add(node);
+                } else {
+                    leaves.add(node);
+                }
             }
-        });
-        
-        Thread t5 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[4] = multiplySequential(s3, s6);
-                latch.countDown();
+            ParallelRuntime.runAll(jobs);
+            for (Subproblem node : expanded) {
+                next.addAll(node.split());
             }
-        });
+            levels.add(expanded);
+            current = next;
+        }
+        leaves.addAll(current);
         
-        Thread t6 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[5] = multiplySequential(s7, b22);
-                latch.countDown();
-            }
-        });
+        // Hojas: recursión secuencial, cada una con su espacio de trabajo
+        List<Runnable> jobs = new ArrayList<>();
+        for (Subproblem leaf : leaves) {
+            jobs.add(leaf::solve);
+        }
+        ParallelRuntime.runAll(jobs);
         
-        Thread t7 = new Thread(new Runnable() {
-            @Override
-            public void run() {
-                results[6] = multiplySequential(s8, b11);
-                latch.countDown();
+        // Combinar productos desde el nivel más profundo hasta la raíz
+        for (int level = levels.size() - 1; level >= 0; level--) {
+            jobs = new ArrayList<>();
+            for (Subproblem node : levels.get(level)) {
+                jobs.add(node::combine);
             }
-        });
-        
-        // Iniciar todos los hilos
-        t1.start();
-        t2.start();
-        t3.start();
-        t4.start();
-        t5.start();
-        t6.start();
-        t7.start();
-        
-        // Esperar a que todos los hilos terminen
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            ParallelRuntime.runAll(jobs);
+        }
+        
+        return unflatten(c, m, n);
+    }
+    
+    /**
+     * Nodo de la expansión de multiplyParallelTraditional: calcula A * B en
+     * la vista de salida c, ya sea directamente (hoja) o combinando los siete
+     * productos de sus hijos
+     */
+    private static final class Subproblem {
+        Operand a;
+        Operand b;
+        final double[] c;
+        final int cOff, ldc;
+        final int m, n, k;
+        double[][] products;
+        
+        Subproblem(Operand a, Operand b, double[] c, int cOff, int ldc, int m, int n, int k) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.cOff = cOff;
+            this.ldc = ldc;
+            this.m = m;
+            this.n = n;
+            this.k = k;
         }
         
-        // Extraer resultados
-        double[][] p1 = results[0];
-        double[][] p2 = results[1];
-        double[][] p3 = results[2];
-        double[][] p4 = results[3];
-        double[][] p5 = results[4];
-        double[][] p6 = results[5];
-        double[][] p7 = results[6];
+        void materialize() {
+            a = a.materialize(m, k);
+            b = b.materialize(k, n);
+        }
         
-        // Calcular submatrices del resultado
-        double[][] c11 = add(subtract(add(p1, p2), p3), p4);
-        double[][] c12 = add(p5, p6);
-        double[][] c21 = add(p3, p7);
-        double[][] c22 = subtract(add(p4, p5), p7);
+        List<Subproblem> split() {
+            int mh = m / 2, nh = n / 2, kh = k / 2;
+            double[] ax = a.x, bx = b.x;
+            int lda = a.ldx, ldb = b.ldx;
+            int a11 = a.xOff, a12 = a11 + kh, a21 = a11 + mh * lda, a22 = a21 + kh;
+            int b11 = b.xOff, b12 = b11 + nh, b21 = b11 + kh * ldb, b22 = b21 + nh;
+            double[][] p = new double[7][mh * nh];
+            products = p;
+            return Arrays.asList(
+                new Subproblem(new Operand(ax, a11, lda, ax, a22, lda, 1),
+                               new Operand(bx, b11, ldb, bx, b22, ldb, 1), p[0], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a21, lda, ax, a22, lda, 1),
+                               new Operand(bx, b11, ldb), p[1], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a11, lda),
+                               new Operand(bx, b12, ldb, bx, b22, ldb, -1), p[2], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a22, lda),
+                               new Operand(bx, b21, ldb, bx, b11, ldb, -1), p[3], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a11, lda, ax, a12, lda, 1),
+                               new Operand(bx, b22, ldb), p[4], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a21, lda, ax, a11, lda, -1),
+                               new Operand(bx, b11, ldb, bx, b12, ldb, 1), p[5], 0, nh, mh, nh, kh),
+                new Subproblem(new Operand(ax, a12, lda, ax, a22, lda, -1),
+                               new Operand(bx, b21, ldb, bx, b22, ldb, 1), p[6], 0, nh, mh, nh, kh));
+        }
         
-        // Combinar las submatrices en el resultado
-        return combineMatrices(c11, c12, c21, c22, n);
+        void solve() {
+            materialize();
+            strassenView(a.x, a.xOff, a.ldx, b.x, b.xOff, b.ldx, c, cOff, ldc,
+                         m, n, k, new Workspace(m, n, k), 0);
+        }
+        
+        void combine() {
+            combineProducts(products, c, cOff, ldc, 0, m / 2, m / 2, n / 2);
+            products = null;
+            peel(a.x, a.xOff, a.ldx, b.x, b.xOff, b.ldx, c, cOff, ldc, m, n, k);
+        }
     }
     
     /**
      * Multiplicación directa de matrices (algoritmo tradicional O(n³))
+     * con el núcleo por bloques de GemmKernel
      */
     private static double[][] multiplyDirectly(double[][] A, double[][] B) {
-        int n = A.length;
-        double[][] C = new double[n][n];
-        
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                for (int k = 0; k < n; k++) {
-                    C[i][j] += A[i][k] * B[k][j];
+        long t = Metrics.start();
+        double[][] C = GemmKernel.multiply(A, B);
+        Metrics.end(Metrics.Phase.STRASSEN_LEAF, t);
+        return C;
+    }
+    
+    /**
+     * C = A * B sobre vistas (m x k por k x n) con el núcleo de GemmKernel
+     */
+    private static void multiplyDirectlyView(double[] a, int aOff, int lda,
+                                             double[] b, int bOff, int ldb,
+                                             double[] c, int cOff, int ldc,
+                                             int m, int n, int k) {
+        multiplyDirectlyView(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k, false);
+    }
+    
+    /**
+     * C = A * B, o C += A * B si accumulate, sobre vistas
+     */
+    private static void multiplyDirectlyView(double[] a, int aOff, int lda,
+                                             double[] b, int bOff, int ldb,
+                                             double[] c, int cOff, int ldc,
+                                             int m, int n, int k, boolean accumulate) {
+        long t = Metrics.start();
+        GemmKernel.multiply(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k, accumulate);
+        Metrics.end(Metrics.Phase.STRASSEN_LEAF, t);
+    }
+    
+    /**
+     * dst = x + sign * y sobre vistas de rows x cols
+     */
+    private static void combineView(double[] dst, int dOff, int ldd,
+                                    double[] x, int xOff, int ldx,
+                                    double[] y, int yOff, int ldy,
+                                    int rows, int cols, double sign) {
+        long t = Metrics.start();
+        if (VectorKernels.ENABLED) {
+            VectorKernels.combine(dst, dOff, ldd, x, xOff, ldx, y, yOff, ldy, rows, cols, sign);
+        } else {
+            for (int i = 0; i < rows; i++) {
+                int di = dOff + i * ldd;
+                int xi = xOff + i * ldx;
+                int yi = yOff + i * ldy;
+                for (int j = 0; j < cols; j++) {
+                    dst[di + j] = x[xi + j] + sign * y[yi + j];
                 }
             }
         }
-        
-        return C;
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
+    }
+    
+    /**
+     * dst += sign * src sobre vistas de rows x cols
+     */
+    private static void accumulateView(double[] dst, int dOff, int ldd,
+                                       double[] src, int sOff, int lds,
+                                       int rows, int cols, double sign) {
+        long t = Metrics.start();
+        if (VectorKernels.ENABLED) {
+            VectorKernels.accumulate(dst, dOff, ldd, src, sOff, lds, rows, cols, sign);
+        } else {
+            for (int i = 0; i < rows; i++) {
+                int di = dOff + i * ldd;
+                int si = sOff + i * lds;
+                for (int j = 0; j < cols; j++) {
+                    dst[di + j] += sign * src[si + j];
+                }
+            }
+        }
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
+    }
+    
+    /**
+     * dst = src sobre vistas de rows x cols
+     */
+    private static void copyView(double[] dst, int dOff, int ldd,
+                                 double[] src, int sOff, int lds, int rows, int cols) {
+        long t = Metrics.start();
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(src, sOff + i * lds, dst, dOff + i * ldd, cols);
+        }
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
+    }
+    
+    /**
+     * Copia una matriz a un arreglo plano por filas
+     */
+    private static double[] flatten(double[][] matrix) {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        double[] flat = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[i], 0, flat, i * cols, cols);
+        }
+        return flat;
+    }
+    
+    /**
+     * Copia un arreglo plano por filas a una matriz
+     */
+    private static double[][] unflatten(double[] flat, int rows, int cols) {
+        double[][] matrix = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(flat, i * cols, matrix[i], 0, cols);
+        }
+        return matrix;
     }
     
     /**
      * Extrae una submatriz de una matriz
      */
     private static double[][] subMatrix(double[][] matrix, int rowStart, int colStart, int size) {
+        long t = Metrics.start();
         double[][] subMatrix = new double[size][size];
         
         for (int i = 0; i < size; i++) {
@@ -321,6 +851,7 @@ public class CoppersmithWinogradMatrixMultiplication {
             }
         }
         
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
         return subMatrix;
     }
     
@@ -328,18 +859,19 @@ public class CoppersmithWinogradMatrixMultiplication {
      * Combina cuatro submatrices en una matriz cuadrada
      */
     private static double[][] combineMatrices(double[][] c11, double[][] c12, double[][] c21, double[][] c22, int n) {
+        long t = Metrics.start();
         double[][] result = new double[n][n];
         int newSize = n / 2;
         
+        // Copias de filas completas (System.arraycopy ya es vectorial)
         for (int i = 0; i < newSize; i++) {
-            for (int j = 0; j < newSize; j++) {
-                result[i][j] = c11[i][j];
-                result[i][j + newSize] = c12[i][j];
-                result[i + newSize][j] = c21[i][j];
-                result[i + newSize][j + newSize] = c22[i][j];
-            }
+            System.arraycopy(c11[i], 0, result[i], 0, newSize);
+            System.arraycopy(c12[i], 0, result[i], newSize, newSize);
+            System.arraycopy(c21[i], 0, result[i + newSize], 0, newSize);
+            System.arraycopy(c22[i], 0, result[i + newSize], newSize, newSize);
         }
         
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
         return result;
     }
     
@@ -347,15 +879,21 @@ public class CoppersmithWinogradMatrixMultiplication {
      * Suma dos matrices
      */
     private static double[][] add(double[][] A, double[][] B) {
-        int n = A.length;
-        double[][] C = new double[n][n];
-        
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                C[i][j] = A[i][j] + B[i][j];
+        long t = Metrics.start();
+        double[][] C;
+        if (VectorKernels.ENABLED) {
+            C = VectorKernels.combine(A, B, 1);
+        } else {
+            int n = A.length;
+            C = new double[n][n];
+            
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    C[i][j] = A[i][j] + B[i][j];
+                }
             }
         }
-        
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
         return C;
     }
     
@@ -363,15 +901,21 @@ public class CoppersmithWinogradMatrixMultiplication {
      * Resta dos matrices
      */
     private static double[][] subtract(double[][] A, double[][] B) {
-        int n = A.length;
-        double[][] C = new double[n][n];
-        
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                C[i][j] = A[i][j] - B[i][j];
+        long t = Metrics.start();
+        double[][] C;
+        if (VectorKernels.ENABLED) {
+            C = VectorKernels.combine(A, B, -1);
+        } else {
+            int n = A.length;
+            C = new double[n][n];
+            
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    C[i][j] = A[i][j] - B[i][j];
+                }
             }
         }
-        
+        Metrics.end(Metrics.Phase.STRASSEN_RECURSION, t);
         return C;
     }
     
@@ -388,6 +932,65 @@ public class CoppersmithWinogradMatrixMultiplication {
         }
     }
     
+    /**
+     * Copia una matriz cuadrada a otra de tamaño size rellenando con ceros
+     * (devuelve la misma matriz si ya tiene ese tamaño)
+     */
+    private static double[][] padMatrix(double[][] matrix, int size) {
+        if (matrix.length == size) {
+            return matrix;
+        }
+        double[][] padded = new double[size][size];
+        for (int i = 0; i < matrix.length; i++) {
+            System.arraycopy(matrix[i], 0, padded[i], 0, matrix[i].length);
+        }
+        return padded;
+    }
+    
+    /**
+     * Recorta la esquina superior izquierda n x n de una matriz cuadrada
+     */
+    private static double[][] cropMatrix(double[][] matrix, int n) {
+        if (matrix.length == n) {
+            return matrix;
+        }
+        double[][] cropped = new double[n][];
+        for (int i = 0; i < n; i++) {
+            cropped[i] = Arrays.copyOf(matrix[i], n);
+        }
+        return cropped;
+    }
+    
+    /**
+     * Diferencia máxima absoluta entre dos matrices del mismo tamaño
+     */
+    private static double maxDifference(double[][] X, double[][] Y) {
+        double maxDiff = 0;
+        for (int i = 0; i < X.length; i++) {
+            for (int j = 0; j < X[i].length; j++) {
+                maxDiff = Math.max(maxDiff, Math.abs(X[i][j] - Y[i][j]));
+            }
+        }
+        return maxDiff;
+    }
+    
+    /**
+     * Imprime si una variante coincide con la referencia. La tolerancia 1e-9
+     * se escala con la magnitud del resultado: variantes con otro orden de
+     * sumas (p. ej. Winograd) difieren en redondeo, que crece con n
+     */
+    private static void reportDifference(String name, double[][] reference, double[][] C) {
+        double maxDiff = maxDifference(reference, C);
+        double scale = 1;
+        for (double[] row : reference) {
+            for (double v : row) {
+                scale = Math.max(scale, Math.abs(v));
+            }
+        }
+        System.out.println("  - Resultados " + name + " iguales a secuencial: " + (maxDiff <= 1e-9 * scale));
+        System.out.println("  - Diferencia máxima " + name + ": " + maxDiff);
+    }
+    
     /**
      * Programa principal para demostrar el funcionamiento
      */
@@ -395,25 +998,27 @@ public class CoppersmithWinogradMatrixMultiplication {
         Scanner scanner = new Scanner(System.in);
         
         // Pedir tamaño de matrices
-        System.out.print("Introduce el tamaño de las matrices (debe ser potencia de 2): ");
+        System.out.print("Introduce el tamaño de las matrices: ");
         int n = 1024; // Valor por defecto
         
         try {
             n = scanner.nextInt();
-            // Asegurar que sea potencia de 2
-            if ((n & (n - 1)) != 0) {
-                int nextPow2 = 1;
-                while (nextPow2 < n) nextPow2 <<= 1;
-                System.out.println("El tamaño debe ser potencia de 2. Ajustando " + n + " a " + nextPow2);
-                // 2, 4, 8, 16, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192, 16384, 32768
-                n = nextPow2;
-            }
         } catch (Exception e) {
             System.out.println("Entrada inválida. Usando tamaño predeterminado: " + n);
             scanner.nextLine(); // Limpiar buffer
         }
         
+        // Las versiones clásicas (con copias) dividen siempre a la mitad y
+        // requieren potencia de 2; la versión sin copias trabaja con el tamaño real
+        int padded = 1;
+        while (padded < n) padded <<= 1;
+        if (padded != n) {
+            System.out.println("Las versiones clásicas se ejecutan sobre copias rellenadas a "
+                               + padded + "x" + padded + "; la versión sin copias usa " + n + "x" + n);
+        }
+        
         System.out.println("\nMultiplicando matrices de tamaño " + n + "x" + n);
+        System.out.println("Núcleos: " + (VectorKernels.ENABLED ? "vectoriales (jdk.incubator.vector)" : "escalares"));
         
         // Crear matrices
         double[][] A = new double[n][n];
@@ -439,6 +1044,9 @@ public class CoppersmithWinogradMatrixMultiplication {
             printMatrix(B);
         }
         
+        double[][] Ap = padMatrix(A, padded);
+        double[][] Bp = padMatrix(B, padded);
+        
         // Variables para medir tiempos
         long startTime, endTime, seqTime, parTime, parTraditionalTime;
         double[][] C1, C2, C3;
@@ -451,28 +1059,55 @@ public class CoppersmithWinogradMatrixMultiplication {
         
         // Ejecutar versión secuencial
         System.out.println("\nEjecutando versión secuencial...");
+        Metrics.Region regionSecuencial = Metrics.region("Secuencial");
         startTime = System.currentTimeMillis();
-        C1 = multiplySequential(A, B);
+        C1 = multiplySequential(Ap, Bp);
         endTime = System.currentTimeMillis();
         seqTime = endTime - startTime;
+        regionSecuencial.close();
+        C1 = cropMatrix(C1, n);
         System.out.println("  - Tiempo versión secuencial: " + seqTime + " ms");
         
         // Ejecutar versión paralela con ForkJoin
         System.out.println("\nEjecutando versión paralela (ForkJoin)...");
+        Metrics.Region regionForkjoin = Metrics.region("ForkJoin");
         startTime = System.currentTimeMillis();
         C2 = multiplyParallel(A, B);
         endTime = System.currentTimeMillis();
         parTime = endTime - startTime;
+        regionForkjoin.close();
         System.out.println("  - Tiempo versión paralela (ForkJoin): " + parTime + " ms");
         
         // Ejecutar versión paralela con hilos tradicionales
         System.out.println("\nEjecutando versión paralela (Hilos tradicionales)...");
+        Metrics.Region regionHilos = Metrics.region("Hilos");
         startTime = System.currentTimeMillis();
         C3 = multiplyParallelTraditional(A, B);
         endTime = System.currentTimeMillis();
         parTraditionalTime = endTime - startTime;
+        regionHilos.close();
         System.out.println("  - Tiempo versión paralela (Hilos): " + parTraditionalTime + " ms");
         
+        // Ejecutar versión secuencial sin copias (vistas)
+        System.out.println("\nEjecutando versión secuencial sin copias (vistas)...");
+        Metrics.Region regionSinCopias = Metrics.region("Sin copias");
+        startTime = System.currentTimeMillis();
+        double[][] C4 = multiplySequentialViews(A, B);
+        endTime = System.currentTimeMillis();
+        long viewsTime = endTime - startTime;
+        regionSinCopias.close();
+        System.out.println("  - Tiempo versión sin copias: " + viewsTime + " ms");
+        
+        // Ejecutar variante de Winograd con sumas fusionadas
+        System.out.println("\nEjecutando variante de Winograd (sumas fusionadas)...");
+        Metrics.Region regionWinograd = Metrics.region("Winograd");
+        startTime = System.currentTimeMillis();
+        double[][] C5 = multiplyWinograd(A, B);
+        endTime = System.currentTimeMillis();
+        long winogradTime = endTime - startTime;
+        regionWinograd.close();
+        System.out.println("  - Tiempo variante de Winograd: " + winogradTime + " ms");
+        
         // Calcular y mostrar aceleraciones
         double speedupFJ = (double) seqTime / parTime;
         double speedupTrad = (double) seqTime / parTraditionalTime;
@@ -480,6 +1115,8 @@ public class CoppersmithWinogradMatrixMultiplication {
         System.out.println("\nResultados de rendimiento:");
         System.out.println("  - Aceleración (ForkJoin): " + String.format("%.2f", speedupFJ) + "x");
         System.out.println("  - Aceleración (Hilos): " + String.format("%.2f", speedupTrad) + "x");
+        System.out.println("  - Aceleración (Sin copias): " + String.format("%.2f", (double) seqTime / viewsTime) + "x");
+        System.out.println("  - Aceleración (Winograd): " + String.format("%.2f", (double) seqTime / winogradTime) + "x");
         System.out.println("  - Mejora (ForkJoin): " + String.format("%.2f", (speedupFJ - 1) * 100) + "%");
         System.out.println("  - Mejora (Hilos): " + String.format("%.2f", (speedupTrad - 1) * 100) + "%");
         
@@ -516,10 +1153,13 @@ public class CoppersmithWinogradMatrixMultiplication {
         System.out.println("  - Resultados Hilos iguales a secuencial: " + equalTrad);
         System.out.println("  - Diferencia máxima ForkJoin: " + maxDiffFJ);
         System.out.println("  - Diferencia máxima Hilos: " + maxDiffTrad);
+        reportDifference("Sin copias", C1, C4);
+        reportDifference("Winograd", C1, C5);
         
         // Información del sistema
         System.out.println("\nInformación del sistema:");
         System.out.println("  - Procesadores disponibles: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("  - Hilos de ParallelRuntime: " + ParallelRuntime.workers());
         System.out.println("  - Memoria máxima: " + (Runtime.getRuntime().maxMemory() / (1024 * 1024)) + " MB");
         
         // Preguntar si desea imprimir la matriz resultante
@@ -0,0 +1,581 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Multiplicación de matrices en precisión simple (float32) y mixta.
+ *
+ * - float: almacenamiento, sumas de Winograd y acumulación en float; la
+ *   mitad de bytes por elemento que la versión double.
+ * - mixta: almacenamiento y sumas de Winograd en float, pero el núcleo de
+ *   las hojas acumula los productos escalares en double antes de guardar.
+ *
+ * Usa el mismo esquema de Winograd (7 productos, 15 sumas) y el mismo
+ * núcleo empaquetado que CoppersmithWinogradMatrixMultiplication y GemmKernel,
+ * con sus bloques de caché. Con el módulo de vectores (VectorKernels.ENABLED)
+ * el micro-bloque es de 4 x 8, porque un vector de 256 bits lleva 8 floats,
+ * y los micro-núcleos float y mixto usan FMA vectorial.
+ */
+public class FloatMatrixMultiplication {
+
+    // Umbral de recursión compartido con la versión double
+    private static final int THRESHOLD = MatrixTuning.threshold();
+
+    // Micro-bloque: las filas de GemmKernel y, con vectores, el doble de columnas
+    // (8 floats por vector); la ruta escalar mantiene el bloque 4 x 4
+    static final int MR = GemmKernel.MR;
+    static final int NR = VectorKernels.ENABLED ? 2 * GemmKernel.NR : GemmKernel.NR;
+
+    private static final ThreadLocal<float[]> PACK_A =
+            ThreadLocal.withInitial(() -> new float[GemmKernel.MC * GemmKernel.KC]);
+    private static final ThreadLocal<float[]> PACK_B =
+            ThreadLocal.withInitial(() -> new float[GemmKernel.KC * GemmKernel.NC]);
+    // Paneles de la variante mixta, ya convertidos a double
+    private static final ThreadLocal<double[]> PACK_A_MIXED =
+            ThreadLocal.withInitial(() -> new double[GemmKernel.MC * GemmKernel.KC]);
+    private static final ThreadLocal<double[]> PACK_B_MIXED =
+            ThreadLocal.withInitial(() -> new double[GemmKernel.KC * GemmKernel.NC]);
+
+    /**
+     * C = A * B en float32
+     */
+    public static float[][] multiplyFloat(float[][] A, float[][] B) {
+        return multiply(A, B, false);
+    }
+
+    /**
+     * C = A * B con almacenamiento float y acumulación double en las hojas
+     */
+    public static float[][] multiplyMixed(float[][] A, float[][] B) {
+        return multiply(A, B, true);
+    }
+
+    private static float[][] multiply(float[][] A, float[][] B, boolean mixed) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        float[] a = flatten(A, m, k);
+        float[] b = flatten(B, k, n);
+        float[] c = new float[m * n];
+
+        winogradView(a, 0, k, b, 0, n, c, 0, n, m, n, k, new Workspace(m, n, k), 0, mixed);
+
+        float[][] C = new float[m][n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(c, i * n, C[i], 0, n);
+        }
+        return C;
+    }
+
+    /**
+     * Temporales por nivel (X, Y, Z del esquema de Winograd)
+     */
+    private static final class Workspace {
+        final float[][] sumA;
+        final float[][] sumB;
+        final float[][] product;
+
+        Workspace(int m, int n, int k) {
+            int levels = 0;
+            for (int mm = m, nn = n, kk = k; recurses(mm, nn, kk); mm /= 2, nn /= 2, kk /= 2) {
+                levels++;
+            }
+            sumA = new float[levels][];
+            sumB = new float[levels][];
+            product = new float[levels][];
+            int mh = m / 2, nh = n / 2, kh = k / 2;
+            for (int l = 0; l < levels; l++, mh /= 2, nh /= 2, kh /= 2) {
+                sumA[l] = new float[mh * kh];
+                sumB[l] = new float[kh * nh];
+                product[l] = new float[mh * nh];
+            }
+        }
+    }
+
+    private static boolean recurses(int m, int n, int k) {
+        return Math.min(m, Math.min(n, k)) > THRESHOLD;
+    }
+
+    /**
+     * Mismo orden de cálculo que CoppersmithWinogradMatrixMultiplication.winogradView
+     */
+    private static void winogradView(float[] a, int aOff, int lda,
+                                     float[] b, int bOff, int ldb,
+                                     float[] c, int cOff, int ldc,
+                                     int m, int n, int k, Workspace ws, int level, boolean mixed) {
+        if (!recurses(m, n, k)) {
+            gemm(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k, false, mixed);
+            return;
+        }
+
+        int mh = m / 2, nh = n / 2, kh = k / 2;
+        int a11 = aOff, a12 = aOff + kh, a21 = aOff + mh * lda, a22 = a21 + kh;
+        int b11 = bOff, b12 = bOff + nh, b21 = bOff + kh * ldb, b22 = b21 + nh;
+        int c11 = cOff, c12 = cOff + nh, c21 = cOff + mh * ldc, c22 = c21 + nh;
+        float[] x = ws.sumA[level];
+        float[] y = ws.sumB[level];
+        float[] z = ws.product[level];
+        boolean leafChildren = !recurses(mh, nh, kh);
+
+        combine(x, 0, kh, a, a11, lda, a, a21, lda, mh, kh, -1);
+        combine(y, 0, nh, b, b22, ldb, b, b12, ldb, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c21, ldc, mh, nh, kh, ws, level + 1, mixed);
+
+        combine(x, 0, kh, a, a21, lda, a, a22, lda, mh, kh, 1);
+        combine(y, 0, nh, b, b12, ldb, b, b11, ldb, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c22, ldc, mh, nh, kh, ws, level + 1, mixed);
+
+        combine(x, 0, kh, x, 0, kh, a, a11, lda, mh, kh, -1);
+        combine(y, 0, nh, b, b22, ldb, y, 0, nh, kh, nh, -1);
+        winogradView(x, 0, kh, y, 0, nh, c, c12, ldc, mh, nh, kh, ws, level + 1, mixed);
+
+        combine(x, 0, kh, a, a12, lda, x, 0, kh, mh, kh, -1);
+        winogradView(x, 0, kh, b, b22, ldb, c, c11, ldc, mh, nh, kh, ws, level + 1, mixed);
+
+        winogradView(a, a11, lda, b, b11, ldb, z, 0, nh, mh, nh, kh, ws, level + 1, mixed);
+
+        for (int i = 0; i < mh; i++) {
+            int r11 = c11 + i * ldc, r12 = c12 + i * ldc, r21 = c21 + i * ldc, r22 = c22 + i * ldc;
+            int rz = i * nh;
+            for (int j = 0; j < nh; j++) {
+                float u2 = z[rz + j] + c[r12 + j];
+                float u3 = u2 + c[r21 + j];
+                float p5 = c[r22 + j];
+                c[r21 + j] = u3;
+                c[r22 + j] = u3 + p5;
+                c[r12 + j] = u2 + p5 + c[r11 + j];
+            }
+        }
+
+        combine(y, 0, nh, b, b21, ldb, y, 0, nh, kh, nh, -1);
+        if (leafChildren) {
+            gemm(a, a22, lda, y, 0, nh, c, c21, ldc, mh, nh, kh, true, mixed);
+        } else {
+            winogradView(a, a22, lda, y, 0, nh, c, c11, ldc, mh, nh, kh, ws, level + 1, mixed);
+            accumulate(c, c21, ldc, c, c11, ldc, mh, nh);
+        }
+
+        if (leafChildren) {
+            for (int i = 0; i < mh; i++) {
+                System.arraycopy(z, i * nh, c, c11 + i * ldc, nh);
+            }
+            gemm(a, a12, lda, b, b21, ldb, c, c11, ldc, mh, nh, kh, true, mixed);
+        } else {
+            winogradView(a, a12, lda, b, b21, ldb, c, c11, ldc, mh, nh, kh, ws, level + 1, mixed);
+            accumulate(c, c11, ldc, z, 0, nh, mh, nh);
+        }
+
+        int m2 = m & ~1, n2 = n & ~1, k2 = k & ~1;
+        if (k2 < k) {
+            gemm(a, aOff + k2, lda, b, bOff + k2 * ldb, ldb, c, cOff, ldc, m2, n2, 1, true, mixed);
+        }
+        if (n2 < n) {
+            gemm(a, aOff, lda, b, bOff + n2, ldb, c, cOff + n2, ldc, m2, 1, k, false, mixed);
+        }
+        if (m2 < m) {
+            gemm(a, aOff + m2 * lda, lda, b, bOff, ldb, c, cOff + m2 * ldc, ldc, 1, n, k, false, mixed);
+        }
+    }
+
+    private static void combine(float[] dst, int dOff, int ldd,
+                                float[] x, int xOff, int ldx,
+                                float[] y, int yOff, int ldy,
+                                int rows, int cols, float sign) {
+        for (int i = 0; i < rows; i++) {
+            int di = dOff + i * ldd;
+            int xi = xOff + i * ldx;
+            int yi = yOff + i * ldy;
+            for (int j = 0; j < cols; j++) {
+                dst[di + j] = x[xi + j] + sign * y[yi + j];
+            }
+        }
+    }
+
+    private static void accumulate(float[] dst, int dOff, int ldd,
+                                   float[] src, int sOff, int lds, int rows, int cols) {
+        for (int i = 0; i < rows; i++) {
+            int di = dOff + i * ldd;
+            int si = sOff + i * lds;
+            for (int j = 0; j < cols; j++) {
+                dst[di + j] += src[si + j];
+            }
+        }
+    }
+
+    /**
+     * Núcleo empaquetado (mismos bloques que GemmKernel) para float. Con
+     * mixed, el micro-núcleo acumula en double
+     */
+    static void gemm(float[] a, int aOff, int lda,
+                     float[] b, int bOff, int ldb,
+                     float[] c, int cOff, int ldc,
+                     int m, int n, int k, boolean accumulate, boolean mixed) {
+        if (!accumulate) {
+            for (int i = 0; i < m; i++) {
+                int ci = cOff + i * ldc;
+                for (int j = 0; j < n; j++) {
+                    c[ci + j] = 0;
+                }
+            }
+        }
+        if (m == 0 || n == 0 || k == 0) {
+            return;
+        }
+        if (mixed) {
+            gemmMixed(a, aOff, lda, b, bOff, ldb, c, cOff, ldc, m, n, k);
+            return;
+        }
+
+        float[] packA = PACK_A.get();
+        float[] packB = PACK_B.get();
+
+        for (int jc = 0; jc < n; jc += GemmKernel.NC) {
+            int nc = Math.min(GemmKernel.NC, n - jc);
+            for (int pc = 0; pc < k; pc += GemmKernel.KC) {
+                int kc = Math.min(GemmKernel.KC, k - pc);
+                packB(b, bOff + pc * ldb + jc, ldb, kc, nc, packB);
+
+                for (int ic = 0; ic < m; ic += GemmKernel.MC) {
+                    int mc = Math.min(GemmKernel.MC, m - ic);
+                    packA(a, aOff + ic * lda + pc, lda, mc, kc, packA);
+
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        int nr = Math.min(NR, nc - jr);
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            int mr = Math.min(MR, mc - ir);
+                            int cPos = cOff + (ic + ir) * ldc + jc + jr;
+                            microKernel(kc, packA, ir * kc, packB, jr * kc, c, cPos, ldc, mr, nr);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Variante mixta de gemm: los paneles se empaquetan ya convertidos a
+     * double con el micro-bloque 4 x 4 de GemmKernel, así la conversión se
+     * paga una vez por elemento empaquetado y el cálculo es el del núcleo
+     * double; C sigue en float
+     */
+    private static void gemmMixed(float[] a, int aOff, int lda,
+                                  float[] b, int bOff, int ldb,
+                                  float[] c, int cOff, int ldc,
+                                  int m, int n, int k) {
+        double[] packA = PACK_A_MIXED.get();
+        double[] packB = PACK_B_MIXED.get();
+        double[] tile = new double[MR * GemmKernel.NR];
+
+        for (int jc = 0; jc < n; jc += GemmKernel.NC) {
+            int nc = Math.min(GemmKernel.NC, n - jc);
+            for (int pc = 0; pc < k; pc += GemmKernel.KC) {
+                int kc = Math.min(GemmKernel.KC, k - pc);
+                packB(b, bOff + pc * ldb + jc, ldb, kc, nc, packB);
+
+                for (int ic = 0; ic < m; ic += GemmKernel.MC) {
+                    int mc = Math.min(GemmKernel.MC, m - ic);
+                    packA(a, aOff + ic * lda + pc, lda, mc, kc, packA);
+
+                    for (int jr = 0; jr < nc; jr += GemmKernel.NR) {
+                        int nr = Math.min(GemmKernel.NR, nc - jr);
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            int mr = Math.min(MR, mc - ir);
+                            int cPos = cOff + (ic + ir) * ldc + jc + jr;
+                            microKernelMixed(kc, packA, ir * kc, packB, jr * kc, c, cPos, ldc, mr, nr, tile);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void packA(float[] a, int off, int lda, int mc, int kc, float[] dst) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int mr = Math.min(MR, mc - ir);
+            int base = ir * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * MR;
+                for (int i = 0; i < mr; i++) {
+                    dst[d + i] = a[off + (ir + i) * lda + p];
+                }
+                for (int i = mr; i < MR; i++) {
+                    dst[d + i] = 0;
+                }
+            }
+        }
+    }
+
+    private static void packB(float[] b, int off, int ldb, int kc, int nc, float[] dst) {
+        for (int jr = 0; jr < nc; jr += NR) {
+            int nr = Math.min(NR, nc - jr);
+            int base = jr * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * NR;
+                int s = off + p * ldb + jr;
+                for (int j = 0; j < nr; j++) {
+                    dst[d + j] = b[s + j];
+                }
+                for (int j = nr; j < NR; j++) {
+                    dst[d + j] = 0;
+                }
+            }
+        }
+    }
+
+    private static void packA(float[] a, int off, int lda, int mc, int kc, double[] dst) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int mr = Math.min(MR, mc - ir);
+            int base = ir * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * MR;
+                for (int i = 0; i < mr; i++) {
+                    dst[d + i] = a[off + (ir + i) * lda + p];
+                }
+                for (int i = mr; i < MR; i++) {
+                    dst[d + i] = 0;
+                }
+            }
+        }
+    }
+
+    private static void packB(float[] b, int off, int ldb, int kc, int nc, double[] dst) {
+        for (int jr = 0; jr < nc; jr += GemmKernel.NR) {
+            int nr = Math.min(GemmKernel.NR, nc - jr);
+            int base = jr * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * GemmKernel.NR;
+                int s = off + p * ldb + jr;
+                for (int j = 0; j < nr; j++) {
+                    dst[d + j] = b[s + j];
+                }
+                for (int j = nr; j < GemmKernel.NR; j++) {
+                    dst[d + j] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Micro-núcleo MR x NR en float. El bloque completo va al núcleo
+     * vectorial si está activo; si no, se recorre de 4 en 4 columnas con
+     * acumuladores escalares
+     */
+    private static void microKernel(int kc, float[] pa, int aOff, float[] pb, int bOff,
+                                    float[] c, int cOff, int ldc, int mr, int nr) {
+        if (VectorKernels.ENABLED && mr == MR && nr == NR) {
+            VectorKernels.microKernelFloat(kc, pa, aOff, pb, bOff, c, cOff, ldc);
+            return;
+        }
+        for (int h = 0; h < nr; h += 4) {
+            microKernel4x4(kc, pa, aOff, pb, bOff + h, c, cOff + h, ldc, mr, Math.min(4, nr - h));
+        }
+    }
+
+    private static void microKernel4x4(int kc, float[] pa, int aOff, float[] pb, int bOff,
+                                       float[] c, int cOff, int ldc, int mr, int nr) {
+        float c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        float c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        float c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        float c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        int ai = aOff;
+        int bi = bOff;
+        for (int p = 0; p < kc; p++, ai += MR, bi += NR) {
+            float a0 = pa[ai], a1 = pa[ai + 1], a2 = pa[ai + 2], a3 = pa[ai + 3];
+            float b0 = pb[bi], b1 = pb[bi + 1], b2 = pb[bi + 2], b3 = pb[bi + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+
+        if (mr == MR && nr == 4) {
+            int r0 = cOff, r1 = r0 + ldc, r2 = r1 + ldc, r3 = r2 + ldc;
+            c[r0] += c00; c[r0 + 1] += c01; c[r0 + 2] += c02; c[r0 + 3] += c03;
+            c[r1] += c10; c[r1 + 1] += c11; c[r1 + 2] += c12; c[r1 + 3] += c13;
+            c[r2] += c20; c[r2 + 1] += c21; c[r2 + 2] += c22; c[r2 + 3] += c23;
+            c[r3] += c30; c[r3 + 1] += c31; c[r3 + 2] += c32; c[r3 + 3] += c33;
+            return;
+        }
+
+        float[] tile = {
+            c00, c01, c02, c03,
+            c10, c11, c12, c13,
+            c20, c21, c22, c23,
+            c30, c31, c32, c33
+        };
+        for (int i = 0; i < mr; i++) {
+            for (int j = 0; j < nr; j++) {
+                c[cOff + i * ldc + j] += tile[i * 4 + j];
+            }
+        }
+    }
+
+    private static void microKernelMixed(int kc, double[] pa, int aOff, double[] pb, int bOff,
+                                         float[] c, int cOff, int ldc, int mr, int nr, double[] tile) {
+        if (VectorKernels.ENABLED && mr == MR && nr == GemmKernel.NR) {
+            // Núcleo vectorial double de GemmKernel sobre un bloque temporal
+            Arrays.fill(tile, 0);
+            VectorKernels.microKernel(kc, pa, aOff, pb, bOff, tile, 0, GemmKernel.NR);
+            for (int i = 0; i < MR; i++) {
+                int r = cOff + i * ldc;
+                for (int j = 0; j < GemmKernel.NR; j++) {
+                    c[r + j] = (float) (c[r + j] + tile[i * GemmKernel.NR + j]);
+                }
+            }
+            return;
+        }
+        microKernelMixed4x4(kc, pa, aOff, pb, bOff, c, cOff, ldc, mr, nr);
+    }
+
+    private static void microKernelMixed4x4(int kc, double[] pa, int aOff, double[] pb, int bOff,
+                                            float[] c, int cOff, int ldc, int mr, int nr) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        int ai = aOff;
+        int bi = bOff;
+        for (int p = 0; p < kc; p++, ai += MR, bi += GemmKernel.NR) {
+            double a0 = pa[ai], a1 = pa[ai + 1], a2 = pa[ai + 2], a3 = pa[ai + 3];
+            double b0 = pb[bi], b1 = pb[bi + 1], b2 = pb[bi + 2], b3 = pb[bi + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+
+        // Se suma en double al valor previo de C y se redondea una sola vez
+        if (mr == MR && nr == 4) {
+            int r0 = cOff, r1 = r0 + ldc, r2 = r1 + ldc, r3 = r2 + ldc;
+            c[r0] = (float) (c[r0] + c00); c[r0 + 1] = (float) (c[r0 + 1] + c01);
+            c[r0 + 2] = (float) (c[r0 + 2] + c02); c[r0 + 3] = (float) (c[r0 + 3] + c03);
+            c[r1] = (float) (c[r1] + c10); c[r1 + 1] = (float) (c[r1 + 1] + c11);
+            c[r1 + 2] = (float) (c[r1 + 2] + c12); c[r1 + 3] = (float) (c[r1 + 3] + c13);
+            c[r2] = (float) (c[r2] + c20); c[r2 + 1] = (float) (c[r2 + 1] + c21);
+            c[r2 + 2] = (float) (c[r2 + 2] + c22); c[r2 + 3] = (float) (c[r2 + 3] + c23);
+            c[r3] = (float) (c[r3] + c30); c[r3 + 1] = (float) (c[r3 + 1] + c31);
+            c[r3 + 2] = (float) (c[r3 + 2] + c32); c[r3 + 3] = (float) (c[r3 + 3] + c33);
+            return;
+        }
+
+        double[] tile = {
+            c00, c01, c02, c03,
+            c10, c11, c12, c13,
+            c20, c21, c22, c23,
+            c30, c31, c32, c33
+        };
+        for (int i = 0; i < mr; i++) {
+            for (int j = 0; j < nr; j++) {
+                int idx = cOff + i * ldc + j;
+                c[idx] = (float) (c[idx] + tile[i * 4 + j]);
+            }
+        }
+    }
+
+    /**
+     * C = A * B solo con el núcleo empaquetado float, sin recursión de Winograd
+     */
+    static float[] gemmFloat(float[][] A, float[][] B) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        float[] c = new float[m * n];
+        gemm(flatten(A, m, k), 0, k, flatten(B, k, n), 0, n, c, 0, n, m, n, k, false, false);
+        return c;
+    }
+
+    private static final int REPETITIONS = 3;
+
+    private static long bestTime(Runnable run) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < REPETITIONS; r++) {
+            long start = System.currentTimeMillis();
+            run.run();
+            best = Math.min(best, System.currentTimeMillis() - start);
+        }
+        return best;
+    }
+
+    private static float[] flatten(float[][] matrix, int rows, int cols) {
+        float[] flat = new float[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            System.arraycopy(matrix[i], 0, flat, i * cols, cols);
+        }
+        return flat;
+    }
+
+    public static float[][] toFloat(double[][] matrix) {
+        float[][] result = new float[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            result[i] = new float[matrix[i].length];
+            for (int j = 0; j < matrix[i].length; j++) {
+                result[i][j] = (float) matrix[i][j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Error relativo máximo de un resultado float respecto a la referencia double
+     */
+    public static double maxRelativeError(double[][] reference, float[][] C) {
+        double maxDiff = 0;
+        double scale = 0;
+        for (int i = 0; i < reference.length; i++) {
+            for (int j = 0; j < reference[i].length; j++) {
+                maxDiff = Math.max(maxDiff, Math.abs(reference[i][j] - C[i][j]));
+                scale = Math.max(scale, Math.abs(reference[i][j]));
+            }
+        }
+        return scale == 0 ? maxDiff : maxDiff / scale;
+    }
+
+    /**
+     * Compara tiempo y precisión de las versiones double, float y mixta
+     */
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        System.out.println("Multiplicando matrices de tamaño " + n + "x" + n);
+
+        Random rand = new Random(0);
+        double[][] A = new double[n][n];
+        double[][] B = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                A[i][j] = rand.nextDouble() * 10;
+                B[i][j] = rand.nextDouble() * 10;
+            }
+        }
+        float[][] Af = toFloat(A);
+        float[][] Bf = toFloat(B);
+
+        // Calentar la JVM
+        CoppersmithWinogradMatrixMultiplication.multiplyWinograd(new double[256][256], new double[256][256]);
+        multiplyFloat(new float[256][256], new float[256][256]);
+        multiplyMixed(new float[256][256], new float[256][256]);
+
+        double[][][] C = new double[1][][];
+        float[][][] Cf = new float[1][][];
+        float[][][] Cm = new float[1][][];
+        long doubleTime = bestTime(() -> C[0] = CoppersmithWinogradMatrixMultiplication.multiplyWinograd(A, B));
+        long floatTime = bestTime(() -> Cf[0] = multiplyFloat(Af, Bf));
+        long mixedTime = bestTime(() -> Cm[0] = multiplyMixed(Af, Bf));
+
+        // Solo el núcleo empaquetado, sin Winograd: GEMM double frente a float
+        long gemmDoubleTime = bestTime(() -> GemmKernel.multiply(A, B));
+        long gemmFloatTime = bestTime(() -> gemmFloat(Af, Bf));
+
+        System.out.println("\nResultados de rendimiento (mejor de " + REPETITIONS + "):");
+        System.out.println("  - Tiempo double: " + doubleTime + " ms");
+        System.out.println("  - Tiempo float:  " + floatTime + " ms (" + String.format("%.2f", (double) doubleTime / floatTime) + "x)");
+        System.out.println("  - Tiempo mixto:  " + mixedTime + " ms (" + String.format("%.2f", (double) doubleTime / mixedTime) + "x)");
+        System.out.println("  - GEMM double:   " + gemmDoubleTime + " ms");
+        System.out.println("  - GEMM float:    " + gemmFloatTime + " ms (" + String.format("%.2f", (double) gemmDoubleTime / gemmFloatTime) + "x)");
+        System.out.println("  - Núcleos vectoriales: " + (VectorKernels.ENABLED ? "activos" : "desactivados"));
+
+        System.out.println("\nVerificación de resultados (error relativo máximo frente a double):");
+        System.out.println("  - float: " + maxRelativeError(C[0], Cf[0]));
+        System.out.println("  - mixto: " + maxRelativeError(C[0], Cm[0]));
+    }
+}
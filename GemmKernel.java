@@ -0,0 +1,191 @@
+/**
+ * Núcleo de multiplicación densa C = A * B (o C += A * B) por bloques.
+ *
+ * Sigue el esquema clásico de Goto/BLIS: B se empaqueta en paneles de
+ * KC x NC columnas agrupadas de NR en NR, A en bloques de MC x KC filas
+ * agrupadas de MR en MR, y un micro-núcleo de MR x NR acumula en variables
+ * locales (registros) recorriendo ambos paneles de forma contigua.
+ * Sirve como multiplicación independiente y como caso base de las
+ * recursiones de Strassen/Winograd.
+ */
+public class GemmKernel {
+
+    // Tamaño del micro-bloque de C que se mantiene en registros
+    static final int MR = 4;
+    static final int NR = 4;
+
+    // Bloques de caché: A empaquetada (MC x KC) para L2, panel de B (KC x NR) para L1
+    static final int MC = 64;
+    static final int KC = 256;
+    static final int NC = 512;
+
+    // Buffers de empaquetado por hilo, reutilizados entre llamadas
+    private static final ThreadLocal<double[]> PACK_A = ThreadLocal.withInitial(() -> new double[MC * KC]);
+    private static final ThreadLocal<double[]> PACK_B = ThreadLocal.withInitial(() -> new double[KC * NC]);
+
+    /**
+     * Multiplicación densa independiente de matrices m x k por k x n
+     */
+    public static double[][] multiply(double[][] A, double[][] B) {
+        int m = A.length;
+        int k = B.length;
+        int n = k == 0 ? 0 : B[0].length;
+        double[] a = new double[m * k];
+        double[] b = new double[k * n];
+        double[] c = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(A[i], 0, a, i * k, k);
+        }
+        for (int i = 0; i < k; i++) {
+            System.arraycopy(B[i], 0, b, i * n, n);
+        }
+
+        multiply(a, 0, k, b, 0, n, c, 0, n, m, n, k, false);
+
+        double[][] C = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            System.arraycopy(c, i * n, C[i], 0, n);
+        }
+        return C;
+    }
+
+    /**
+     * C = A * B (accumulate = false) o C += A * B (accumulate = true) sobre
+     * vistas por filas: A es m x k con paso lda, B es k x n con paso ldb y
+     * C es m x n con paso ldc
+     */
+    public static void multiply(double[] a, int aOff, int lda,
+                                double[] b, int bOff, int ldb,
+                                double[] c, int cOff, int ldc,
+                                int m, int n, int k, boolean accumulate) {
+        if (!accumulate) {
+            for (int i = 0; i < m; i++) {
+                int ci = cOff + i * ldc;
+                for (int j = 0; j < n; j++) {
+                    c[ci + j] = 0;
+                }
+            }
+        }
+        if (m == 0 || n == 0 || k == 0) {
+            return;
+        }
+
+        double[] packA = PACK_A.get();
+        double[] packB = PACK_B.get();
+
+        for (int jc = 0; jc < n; jc += NC) {
+            int nc = Math.min(NC, n - jc);
+            for (int pc = 0; pc < k; pc += KC) {
+                int kc = Math.min(KC, k - pc);
+                packB(b, bOff + pc * ldb + jc, ldb, kc, nc, packB);
+
+                for (int ic = 0; ic < m; ic += MC) {
+                    int mc = Math.min(MC, m - ic);
+                    packA(a, aOff + ic * lda + pc, lda, mc, kc, packA);
+
+                    for (int jr = 0; jr < nc; jr += NR) {
+                        int nr = Math.min(NR, nc - jr);
+                        for (int ir = 0; ir < mc; ir += MR) {
+                            int mr = Math.min(MR, mc - ir);
+                            microKernel(kc, packA, ir * kc, packB, jr * kc,
+                                        c, cOff + (ic + ir) * ldc + jc + jr, ldc, mr, nr);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Empaqueta un bloque mc x kc de A en tiras de MR filas: dentro de cada
+     * tira, los MR valores de una misma columna quedan contiguos. Las filas
+     * que faltan para completar la última tira se rellenan con ceros
+     */
+    private static void packA(double[] a, int off, int lda, int mc, int kc, double[] dst) {
+        for (int ir = 0; ir < mc; ir += MR) {
+            int mr = Math.min(MR, mc - ir);
+            int base = ir * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * MR;
+                for (int i = 0; i < mr; i++) {
+                    dst[d + i] = a[off + (ir + i) * lda + p];
+                }
+                for (int i = mr; i < MR; i++) {
+                    dst[d + i] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Empaqueta un panel kc x nc de B en tiras de NR columnas: dentro de cada
+     * tira, los NR valores de una misma fila quedan contiguos
+     */
+    private static void packB(double[] b, int off, int ldb, int kc, int nc, double[] dst) {
+        for (int jr = 0; jr < nc; jr += NR) {
+            int nr = Math.min(NR, nc - jr);
+            int base = jr * kc;
+            for (int p = 0; p < kc; p++) {
+                int d = base + p * NR;
+                int s = off + p * ldb + jr;
+                for (int j = 0; j < nr; j++) {
+                    dst[d + j] = b[s + j];
+                }
+                for (int j = nr; j < NR; j++) {
+                    dst[d + j] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Micro-núcleo 4 x 4: acumula el producto de una tira de A por una tira
+     * de B en 16 variables locales y lo suma al bloque mr x nr de C. Los
+     * bloques completos usan la versión vectorial si está disponible
+     */
+    private static void microKernel(int kc, double[] pa, int aOff, double[] pb, int bOff,
+                                    double[] c, int cOff, int ldc, int mr, int nr) {
+        if (VectorKernels.ENABLED && mr == MR && nr == NR) {
+            VectorKernels.microKernel(kc, pa, aOff, pb, bOff, c, cOff, ldc);
+            return;
+        }
+
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+
+        int ai = aOff;
+        int bi = bOff;
+        for (int p = 0; p < kc; p++, ai += MR, bi += NR) {
+            double a0 = pa[ai], a1 = pa[ai + 1], a2 = pa[ai + 2], a3 = pa[ai + 3];
+            double b0 = pb[bi], b1 = pb[bi + 1], b2 = pb[bi + 2], b3 = pb[bi + 3];
+            c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+            c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+            c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+            c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+        }
+
+        if (mr == MR && nr == NR) {
+            int r0 = cOff, r1 = r0 + ldc, r2 = r1 + ldc, r3 = r2 + ldc;
+            c[r0] += c00; c[r0 + 1] += c01; c[r0 + 2] += c02; c[r0 + 3] += c03;
+            c[r1] += c10; c[r1 + 1] += c11; c[r1 + 2] += c12; c[r1 + 3] += c13;
+            c[r2] += c20; c[r2 + 1] += c21; c[r2 + 2] += c22; c[r2 + 3] += c23;
+            c[r3] += c30; c[r3 + 1] += c31; c[r3 + 2] += c32; c[r3 + 3] += c33;
+            return;
+        }
+
+        // Borde: solo se escriben las mr x nr posiciones válidas
+        double[] tile = {
+            c00, c01, c02, c03,
+            c10, c11, c12, c13,
+            c20, c21, c22, c23,
+            c30, c31, c32, c33
+        };
+        for (int i = 0; i < mr; i++) {
+            for (int j = 0; j < nr; j++) {
+                c[cOff + i * ldc + j] += tile[i * NR + j];
+            }
+        }
+    }
+}
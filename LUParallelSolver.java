@@ -1,18 +1,29 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+
+import Parallel_Common.DenseMatrix;
+import Parallel_Common.Metrics;
+import Parallel_Common.ParallelRuntime;
 
 public class LUParallelSolver {
     static final int L = 2048;
-    static final int h = 10;
+    static final int h = ParallelRuntime.workers();
+    static final int K = 64;
+
+    // Parámetros del refinamiento iterativo en precisión mixta
+    static final int MAX_REFINAMIENTOS = 30;
+    static final double TOL_REFINAMIENTO = 1e-14;
+
+    // Ancho mínimo de un bloque de columnas en la solución con varios lados derechos
+    static final int BLOQUE_RHS = 32;
 
     static double[][] A;
     static double[] b;
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) {
         System.out.println("Tamaño de matriz (L): " + L);
         System.out.println("Número de hilos (h): " + h);
 
@@ -29,16 +40,54 @@ public class LUParallelSolver {
 
         // === Paralelo ===
         double[][] Aparallel = copyMatrix(A);
+        Metrics.Region regionParalelo = Metrics.region("LU paralelo");
         long startParalelo = System.nanoTime();
-        double[][][] luParalelo = luParalelo(Aparallel, h);
+        double[][][] luParalelo = luParalelo(Aparallel);
         double[] xParalelo = resolverLU(luParalelo[0], luParalelo[1], b);
         long endParalelo = System.nanoTime();
+        regionParalelo.close();
         double tiempoParalelo = (endParalelo - startParalelo) / 1e9;
 
+        // === En sitio (L y U empaquetadas en un solo buffer) ===
+        double[] Aempaquetada = aplanar(A);
+        int[] piv = new int[L];
+        Metrics.Region regionEnSitio = Metrics.region("LU en sitio");
+        long startEnSitio = System.nanoTime();
+        luEnSitioParalelo(Aempaquetada, L, piv);
+        double[] xEnSitio = resolverLU(Aempaquetada, L, piv, b);
+        long endEnSitio = System.nanoTime();
+        regionEnSitio.close();
+        double tiempoEnSitio = (endEnSitio - startEnSitio) / 1e9;
+
+        // === Varios lados derechos reutilizando la factorización ===
+        CacheFactorizaciones cache = new CacheFactorizaciones(256L << 20);
+        double[] Aplana = aplanar(A);
+        double[] B = generarBloqueAleatorio(L, K);
+        long startCache = System.nanoTime();
+        double[] X1 = cache.resolver(Aplana, L, 0, B, K);
+        long midCache = System.nanoTime();
+        double[] X2 = cache.resolver(Aplana, L, 0, B, K);
+        long endCache = System.nanoTime();
+
+        // === Precisión mixta (factoriza en float, refina en double) ===
+        long startMixto = System.nanoTime();
+        ResultadoRefinamiento mixto = resolverMixto(aplanar(A), L, b, MAX_REFINAMIENTOS, TOL_REFINAMIENTO);
+        long endMixto = System.nanoTime();
+        double tiempoMixto = (endMixto - startMixto) / 1e9;
+
         // === Resultados ===
         System.out.printf("Tiempo Serial:   %.5f segundos\n", tiempoSerial);
         System.out.printf("Tiempo Paralelo: %.5f segundos\n", tiempoParalelo);
+        System.out.printf("Tiempo En sitio: %.5f segundos\n", tiempoEnSitio);
         System.out.println("¿Soluciones similares?: " + compararVectores(xSerial, xParalelo));
+        System.out.println("¿Solución en sitio similar?: " + compararVectores(xSerial, xEnSitio));
+        System.out.printf("Tiempo Mixto:    %.5f segundos (%d refinamientos, residuo %.3e%s)\n",
+                tiempoMixto, mixto.iteraciones, mixto.residuo, mixto.respaldoDouble ? ", respaldo double" : "");
+        System.out.println("¿Solución mixta similar?: " + compararVectores(xSerial, mixto.x));
+        System.out.printf("Tiempo %d RHS (factoriza): %.5f segundos\n", K, (midCache - startCache) / 1e9);
+        System.out.printf("Tiempo %d RHS (en caché):  %.5f segundos\n", K, (endCache - midCache) / 1e9);
+        System.out.println("¿Soluciones RHS similares?: " + compararColumnas(X1, Aempaquetada, L, piv, B, K));
+        System.out.println("¿Solución en caché idéntica?: " + Arrays.equals(X1, X2));
     }
 
     public static double[][][] luSerial(double[][] A) {
@@ -66,17 +115,17 @@ public class LUParallelSolver {
         return new double[][][]{L, U};
     }
 
-    public static double[][][] luParalelo(double[][] A, int numThreads) throws InterruptedException {
+    public static double[][][] luParalelo(double[][] A) {
         int n = A.length;
         double[][] L = new double[n][n];
         double[][] U = new double[n][n];
 
-        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
-
         for (int i = 0; i < n; i++) {
             final int currentI = i;
             L[currentI][currentI] = 1;
 
+            // Panel: fila i de U, en el hilo llamador
+            long t = Metrics.start();
             for (int j = currentI; j < n; j++) {
                 double sum = 0;
                 for (int k = 0; k < currentI; k++) {
@@ -84,32 +133,137 @@ public class LUParallelSolver {
                 }
                 U[currentI][j] = A[currentI][j] - sum;
             }
+            Metrics.end(Metrics.Phase.LU_PANEL, t);
+
+            // Actualización: columna i de L, por tramos de filas en el pool
+            if (currentI + 1 < n) {
+                t = Metrics.start();
+                ParallelRuntime.parallelFor(currentI + 1, n, (lo, hi) -> {
+                    for (int j = lo; j < hi; j++) {
+                        double sum = 0;
+                        for (int k = 0; k < currentI; k++) {
+                            sum += L[j][k] * U[k][currentI];
+                        }
+                        L[j][currentI] = (A[j][currentI] - sum) / U[currentI][currentI];
+                    }
+                });
+                Metrics.end(Metrics.Phase.LU_UPDATE, t);
+            }
+        }
+
+        return new double[][][]{L, U};
+    }
+
+    // Factorización LU en sitio con pivoteo parcial sobre un buffer plano n×n (row-major).
+    // Al terminar, el triángulo estricto inferior contiene L (diagonal unitaria implícita),
+    // el triángulo superior contiene U y piv[i] es la fila intercambiada en el paso i.
+    public static void luEnSitio(double[] a, int n, int[] piv) {
+        luEnSitio(a, 0, n, n, piv);
+    }
+
+    // Misma factorización sobre una vista cuadrada en el heap, sin copias (con su
+    // desplazamiento y paso de fila). Las matrices fuera del heap se rechazan en vez
+    // de copiarse enteras: para las que no caben en memoria está OutOfCoreLU.
+    public static void luEnSitio(DenseMatrix a, int[] piv) {
+        int n = cuadrada(a);
+        enHeap(a);
+        luEnSitio(a.array(), (int) a.offset(), (int) a.stride(), n, piv);
+    }
+
+    // Fila i de la matriz en a[off + i * ld ...]
+    private static void luEnSitio(double[] a, int off, int ld, int n, int[] piv) {
+        for (int k = 0; k < n; k++) {
+            int p = pivotear(a, off, ld, n, k, piv);
+            double pivote = a[p];
+            for (int i = k + 1; i < n; i++) {
+                int filaI = off + i * ld;
+                double lik = a[filaI + k] / pivote;
+                a[filaI + k] = lik;
+                if (lik != 0) {
+                    for (int j = k + 1; j < n; j++) {
+                        a[filaI + j] -= lik * a[p - k + j];
+                    }
+                }
+            }
+        }
+    }
 
-            int range = n - (currentI + 1);
-            if (range > 0) {
-                int numTasks = Math.min(numThreads, range);
-                List<Callable<Void>> tasks = new ArrayList<>();
+    // Como luEnSitio, con la actualización de cada paso repartida por tramos de
+    // filas entre los hilos de ParallelRuntime.
+    public static void luEnSitioParalelo(double[] a, int n, int[] piv) {
+        luEnSitioParalelo(a, 0, n, n, piv);
+    }
 
-                for (int t = 0; t < numTasks; t++) {
-                    final int threadId = t;
-                    tasks.add(() -> {
-                        for (int j = currentI + 1 + threadId; j < n; j += numTasks) {
-                            double sum = 0;
-                            for (int k = 0; k < currentI; k++) {
-                                sum += L[j][k] * U[k][currentI];
+    public static void luEnSitioParalelo(DenseMatrix a, int[] piv) {
+        int n = cuadrada(a);
+        enHeap(a);
+        luEnSitioParalelo(a.array(), (int) a.offset(), (int) a.stride(), n, piv);
+    }
+
+    private static void luEnSitioParalelo(double[] a, int off, int ld, int n, int[] piv) {
+        for (int k = 0; k < n; k++) {
+            final int currentK = k;
+            long t = Metrics.start();
+            final int p = pivotear(a, off, ld, n, k, piv);
+            final double pivote = a[p];
+            Metrics.end(Metrics.Phase.LU_PANEL, t);
+
+            if (currentK + 1 < n) {
+                t = Metrics.start();
+                ParallelRuntime.parallelFor(currentK + 1, n, (lo, hi) -> {
+                    for (int i = lo; i < hi; i++) {
+                        int filaI = off + i * ld;
+                        double lik = a[filaI + currentK] / pivote;
+                        a[filaI + currentK] = lik;
+                        if (lik != 0) {
+                            for (int j = currentK + 1; j < n; j++) {
+                                a[filaI + j] -= lik * a[p - currentK + j];
                             }
-                            L[j][currentI] = (A[j][currentI] - sum) / U[currentI][currentI];
                         }
-                        return null;
-                    });
-                }
+                    }
+                });
+                Metrics.end(Metrics.Phase.LU_UPDATE, t);
+            }
+        }
+    }
 
-                executor.invokeAll(tasks);
+    // Busca el pivote de la columna k, intercambia filas si hace falta y
+    // devuelve el índice plano del elemento diagonal a[k][k].
+    private static int pivotear(double[] a, int off, int ld, int n, int k, int[] piv) {
+        int filaPivote = k;
+        double max = Math.abs(a[off + k * ld + k]);
+        for (int i = k + 1; i < n; i++) {
+            double v = Math.abs(a[off + i * ld + k]);
+            if (v > max) {
+                max = v;
+                filaPivote = i;
             }
         }
+        if (max == 0) {
+            throw new ArithmeticException("Matriz singular en la columna " + k);
+        }
+        piv[k] = filaPivote;
+        if (filaPivote != k) {
+            int filaK = off + k * ld;
+            int filaP = off + filaPivote * ld;
+            for (int j = 0; j < n; j++) {
+                double tmp = a[filaK + j];
+                a[filaK + j] = a[filaP + j];
+                a[filaP + j] = tmp;
+            }
+        }
+        return off + k * ld + k;
+    }
 
-        executor.shutdown();
-        return new double[][][]{L, U};
+    private static void enHeap(DenseMatrix a) {
+        a.requireHeap("la LU en sitio trabaja sobre el arreglo; usar OutOfCoreLU o copiar con heapCopy()");
+    }
+
+    private static int cuadrada(DenseMatrix a) {
+        if (a.rows() != a.cols()) {
+            throw new IllegalArgumentException("La matriz debe ser cuadrada: " + a.rows() + "x" + a.cols());
+        }
+        return a.rows();
     }
 
     public static double[] resolverLU(double[][] L, double[][] U, double[] b) {
@@ -136,6 +290,442 @@ public class LUParallelSolver {
         return x;
     }
 
+    // Resuelve A·x = b a partir de la forma empaquetada producida por luEnSitio.
+    public static double[] resolverLU(double[] lu, int n, int[] piv, double[] b) {
+        return resolverLU(lu, 0, n, n, piv, b);
+    }
+
+    // Las vistas en el heap se resuelven sobre el arreglo; las de fuera del heap
+    // (incluidas las de más de 2^31 elementos) leyendo una fila cada vez, sin copiarlas.
+    public static double[] resolverLU(DenseMatrix lu, int[] piv, double[] b) {
+        int n = cuadrada(lu);
+        if (lu.isHeap()) {
+            return resolverLU(lu.array(), (int) lu.offset(), (int) lu.stride(), n, piv, b);
+        }
+        double[] x = b.clone();
+        double[] fila = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            int p = piv[i];
+            if (p != i) {
+                double tmp = x[i];
+                x[i] = x[p];
+                x[p] = tmp;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            lu.getRow(i, fila, 0);
+            double sum = 0;
+            for (int j = 0; j < i; j++) {
+                sum += fila[j] * x[j];
+            }
+            x[i] -= sum;
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            lu.getRow(i, fila, 0);
+            double sum = 0;
+            for (int j = i + 1; j < n; j++) {
+                sum += fila[j] * x[j];
+            }
+            x[i] = (x[i] - sum) / fila[i];
+        }
+
+        return x;
+    }
+
+    private static double[] resolverLU(double[] lu, int off, int ld, int n, int[] piv, double[] b) {
+        double[] x = b.clone();
+
+        for (int i = 0; i < n; i++) {
+            int p = piv[i];
+            if (p != i) {
+                double tmp = x[i];
+                x[i] = x[p];
+                x[p] = tmp;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            int filaI = off + i * ld;
+            double sum = 0;
+            for (int j = 0; j < i; j++) {
+                sum += lu[filaI + j] * x[j];
+            }
+            x[i] -= sum;
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            int filaI = off + i * ld;
+            double sum = 0;
+            for (int j = i + 1; j < n; j++) {
+                sum += lu[filaI + j] * x[j];
+            }
+            x[i] = (x[i] - sum) / lu[filaI + i];
+        }
+
+        return x;
+    }
+
+    // Misma factorización en sitio que luEnSitioParalelo pero en precisión simple:
+    // la mitad de memoria y de ancho de banda por elemento.
+    public static void luEnSitioFloat(float[] a, int n, int[] piv) {
+        for (int k = 0; k < n; k++) {
+            final int currentK = k;
+            final int p = pivotearFloat(a, n, k, piv);
+            final float pivote = a[p];
+
+            if (currentK + 1 < n) {
+                ParallelRuntime.parallelFor(currentK + 1, n, (lo, hi) -> {
+                    for (int i = lo; i < hi; i++) {
+                        int filaI = i * n;
+                        float lik = a[filaI + currentK] / pivote;
+                        a[filaI + currentK] = lik;
+                        if (lik != 0) {
+                            for (int j = currentK + 1; j < n; j++) {
+                                a[filaI + j] -= lik * a[p - currentK + j];
+                            }
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    private static int pivotearFloat(float[] a, int n, int k, int[] piv) {
+        int filaPivote = k;
+        float max = Math.abs(a[k * n + k]);
+        for (int i = k + 1; i < n; i++) {
+            float v = Math.abs(a[i * n + k]);
+            if (v > max) {
+                max = v;
+                filaPivote = i;
+            }
+        }
+        if (max == 0) {
+            throw new ArithmeticException("Matriz singular en la columna " + k);
+        }
+        piv[k] = filaPivote;
+        if (filaPivote != k) {
+            int filaK = k * n;
+            int filaP = filaPivote * n;
+            for (int j = 0; j < n; j++) {
+                float tmp = a[filaK + j];
+                a[filaK + j] = a[filaP + j];
+                a[filaP + j] = tmp;
+            }
+        }
+        return k * n + k;
+    }
+
+    // Sustitución con los factores en float; el vector se acumula en double.
+    public static double[] resolverLUFloat(float[] lu, int n, int[] piv, double[] b) {
+        double[] x = b.clone();
+
+        for (int i = 0; i < n; i++) {
+            int p = piv[i];
+            if (p != i) {
+                double tmp = x[i];
+                x[i] = x[p];
+                x[p] = tmp;
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            int filaI = i * n;
+            double sum = 0;
+            for (int j = 0; j < i; j++) {
+                sum += lu[filaI + j] * x[j];
+            }
+            x[i] -= sum;
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            int filaI = i * n;
+            double sum = 0;
+            for (int j = i + 1; j < n; j++) {
+                sum += lu[filaI + j] * x[j];
+            }
+            x[i] = (x[i] - sum) / lu[filaI + i];
+        }
+
+        return x;
+    }
+
+    // Resultado de resolverMixto: solución, refinamientos realizados y residuo relativo
+    // ||b - A·x||∞ / (||A||∞·||x||∞ + ||b||∞) alcanzado.
+    public static class ResultadoRefinamiento {
+        final double[] x;
+        final int iteraciones;
+        final double residuo;
+        final boolean respaldoDouble;
+
+        ResultadoRefinamiento(double[] x, int iteraciones, double residuo, boolean respaldoDouble) {
+            this.x = x;
+            this.iteraciones = iteraciones;
+            this.residuo = residuo;
+            this.respaldoDouble = respaldoDouble;
+        }
+    }
+
+    // Resuelve A·x = b factorizando en float y recuperando precisión double mediante
+    // refinamiento iterativo con residuos calculados en double. Si el refinamiento no
+    // converge (matriz mal condicionada) se recurre a la factorización en double.
+    public static ResultadoRefinamiento resolverMixto(double[] a, int n, double[] b, int maxIter,
+                                                      double tol) {
+        float[] luF = new float[n * n];
+        for (int i = 0; i < luF.length; i++)
+            luF[i] = (float) a[i];
+        int[] piv = new int[n];
+        luEnSitioFloat(luF, n, piv);
+
+        double normaA = normaInf(a, n);
+        double normaB = 0;
+        for (double v : b)
+            normaB = Math.max(normaB, Math.abs(v));
+
+        double[] x = resolverLUFloat(luF, n, piv, b);
+        double[] r = new double[n];
+        double residuo = residuo(a, n, x, b, r, normaA, normaB);
+        int iter = 0;
+        double anterior = Double.MAX_VALUE;
+
+        while (residuo > tol && iter < maxIter && residuo < anterior) {
+            double[] d = resolverLUFloat(luF, n, piv, r);
+            for (int i = 0; i < n; i++)
+                x[i] += d[i];
+            iter++;
+            anterior = residuo;
+            residuo = residuo(a, n, x, b, r, normaA, normaB);
+        }
+
+        if (residuo > tol) {
+            double[] lu = a.clone();
+            luEnSitioParalelo(lu, n, piv);
+            x = resolverLU(lu, n, piv, b);
+            residuo = residuo(a, n, x, b, r, normaA, normaB);
+            return new ResultadoRefinamiento(x, iter, residuo, true);
+        }
+        return new ResultadoRefinamiento(x, iter, residuo, false);
+    }
+
+    // Calcula r = b - A·x en double y devuelve el residuo relativo en norma infinito.
+    private static double residuo(double[] a, int n, double[] x, double[] b, double[] r,
+                                  double normaA, double normaB) {
+        double maxR = 0;
+        double maxX = 0;
+        for (int i = 0; i < n; i++) {
+            int filaI = i * n;
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                sum += a[filaI + j] * x[j];
+            }
+            r[i] = b[i] - sum;
+            maxR = Math.max(maxR, Math.abs(r[i]));
+            maxX = Math.max(maxX, Math.abs(x[i]));
+        }
+        return maxR / (normaA * maxX + normaB);
+    }
+
+    private static double normaInf(double[] a, int n) {
+        double max = 0;
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            for (int j = 0; j < n; j++)
+                sum += Math.abs(a[i * n + j]);
+            max = Math.max(max, sum);
+        }
+        return max;
+    }
+
+    // Resuelve A·X = B para k lados derechos a la vez. B es un bloque n×k row-major
+    // (no se modifica); las columnas se reparten en bloques de al menos BLOQUE_RHS que
+    // se resuelven en paralelo y cada sustitución recorre filas contiguas del bloque.
+    public static double[] resolverLUMultiple(double[] lu, int n, int[] piv, double[] B, int k) {
+        double[] X = B.clone();
+
+        for (int i = 0; i < n; i++) {
+            int p = piv[i];
+            if (p != i) {
+                for (int c = 0; c < k; c++) {
+                    double tmp = X[i * k + c];
+                    X[i * k + c] = X[p * k + c];
+                    X[p * k + c] = tmp;
+                }
+            }
+        }
+
+        int numBloques = Math.max(1, k / BLOQUE_RHS);
+        if (numBloques == 1) {
+            sustitucionBloque(lu, n, X, k, 0, k);
+            return X;
+        }
+
+        int ancho = (k + numBloques - 1) / numBloques;
+        ParallelRuntime.parallelFor(0, numBloques, t -> {
+            int c0 = t * ancho;
+            int c1 = Math.min(k, c0 + ancho);
+            sustitucionBloque(lu, n, X, k, c0, c1);
+        });
+        return X;
+    }
+
+    // Sustitución hacia adelante y hacia atrás sobre las columnas [c0, c1) de X.
+    private static void sustitucionBloque(double[] lu, int n, double[] X, int k, int c0, int c1) {
+        for (int i = 0; i < n; i++) {
+            int filaI = i * n;
+            int xi = i * k;
+            for (int j = 0; j < i; j++) {
+                double lij = lu[filaI + j];
+                if (lij != 0) {
+                    int xj = j * k;
+                    for (int c = c0; c < c1; c++) {
+                        X[xi + c] -= lij * X[xj + c];
+                    }
+                }
+            }
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            int filaI = i * n;
+            int xi = i * k;
+            for (int j = i + 1; j < n; j++) {
+                double uij = lu[filaI + j];
+                if (uij != 0) {
+                    int xj = j * k;
+                    for (int c = c0; c < c1; c++) {
+                        X[xi + c] -= uij * X[xj + c];
+                    }
+                }
+            }
+            double uii = lu[filaI + i];
+            for (int c = c0; c < c1; c++) {
+                X[xi + c] /= uii;
+            }
+        }
+    }
+
+    // Factorización empaquetada lista para reutilizarse con nuevos lados derechos.
+    public static class Factorizacion {
+        final double[] lu;
+        final int n;
+        final int[] piv;
+
+        Factorizacion(double[] lu, int n, int[] piv) {
+            this.lu = lu;
+            this.n = n;
+            this.piv = piv;
+        }
+
+        long bytes() {
+            return 8L * lu.length + 4L * piv.length;
+        }
+
+        public double[] resolver(double[] B, int k) {
+            return resolverLUMultiple(lu, n, piv, B, k);
+        }
+    }
+
+    // Caché de factorizaciones indexada por identidad de la matriz y un número de versión
+    // que el llamador incrementa cuando modifica sus coeficientes. Se limita por memoria
+    // y desaloja las entradas usadas hace más tiempo (LRU). La clave retiene la matriz
+    // del llamador, así que su tamaño cuenta en el límite junto con los factores.
+    public static class CacheFactorizaciones {
+        private final long maxBytes;
+        private long bytesUsados;
+        private final LinkedHashMap<Clave, Factorizacion> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+        public CacheFactorizaciones(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        public Factorizacion obtener(double[] a, int n, long version) {
+            Clave clave = new Clave(a, version);
+            synchronized (this) {
+                Factorizacion f = entradas.get(clave);
+                if (f != null) {
+                    return f;
+                }
+            }
+
+            // Se factoriza fuera del candado; si dos hilos coinciden, gana el último
+            double[] lu = a.clone();
+            int[] piv = new int[n];
+            luEnSitioParalelo(lu, n, piv);
+            Factorizacion f = new Factorizacion(lu, n, piv);
+
+            synchronized (this) {
+                Factorizacion anterior = entradas.put(clave, f);
+                if (anterior != null) {
+                    bytesUsados -= clave.bytes() + anterior.bytes();
+                }
+                bytesUsados += clave.bytes() + f.bytes();
+                desalojar(clave);
+            }
+            return f;
+        }
+
+        public double[] resolver(double[] a, int n, long version, double[] B, int k) {
+            return obtener(a, n, version).resolver(B, k);
+        }
+
+        public synchronized void invalidar(double[] a) {
+            Iterator<Map.Entry<Clave, Factorizacion>> it = entradas.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Clave, Factorizacion> e = it.next();
+                if (e.getKey().matriz == a) {
+                    bytesUsados -= e.getKey().bytes() + e.getValue().bytes();
+                    it.remove();
+                }
+            }
+        }
+
+        public synchronized long bytesUsados() {
+            return bytesUsados;
+        }
+
+        // Desaloja en orden LRU hasta respetar el límite, conservando siempre la entrada recién insertada.
+        private void desalojar(Clave recien) {
+            Iterator<Map.Entry<Clave, Factorizacion>> it = entradas.entrySet().iterator();
+            while (bytesUsados > maxBytes && it.hasNext()) {
+                Map.Entry<Clave, Factorizacion> e = it.next();
+                if (e.getKey().equals(recien)) {
+                    continue;
+                }
+                bytesUsados -= e.getKey().bytes() + e.getValue().bytes();
+                it.remove();
+            }
+        }
+
+        private static final class Clave {
+            final double[] matriz;
+            final long version;
+
+            Clave(double[] matriz, long version) {
+                this.matriz = matriz;
+                this.version = version;
+            }
+
+            // Memoria de la matriz del llamador que la entrada mantiene viva
+            long bytes() {
+                return 8L * matriz.length;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Clave)) return false;
+                Clave otra = (Clave) o;
+                return matriz == otra.matriz && version == otra.version;
+            }
+
+            @Override
+            public int hashCode() {
+                return 31 * System.identityHashCode(matriz) + Long.hashCode(version);
+            }
+        }
+    }
+
     public static double[][] generarMatrizAleatoria(int n) {
         double[][] M = new double[n][n];
         Random rand = new Random(0);
@@ -153,6 +743,14 @@ public class LUParallelSolver {
         return v;
     }
 
+    public static double[] generarBloqueAleatorio(int n, int k) {
+        double[] B = new double[n * k];
+        Random rand = new Random(2);
+        for (int i = 0; i < n * k; i++)
+            B[i] = 1 + rand.nextDouble() * 10;
+        return B;
+    }
+
     public static double[][] copyMatrix(double[][] original) {
         int n = original.length;
         double[][] copy = new double[n][n];
@@ -161,6 +759,30 @@ public class LUParallelSolver {
         return copy;
     }
 
+    public static double[] aplanar(double[][] original) {
+        int n = original.length;
+        double[] plano = new double[n * n];
+        for (int i = 0; i < n; i++)
+            System.arraycopy(original[i], 0, plano, i * n, n);
+        return plano;
+    }
+
+    // Compara cada columna de X (n×k row-major) con la solución de su lado derecho
+    // resuelta por separado con resolverLU sobre la factorización empaquetada lu.
+    public static boolean compararColumnas(double[] X, double[] lu, int n, int[] piv, double[] B, int k) {
+        double[] b = new double[n];
+        double[] x = new double[n];
+        for (int c = 0; c < k; c++) {
+            for (int i = 0; i < n; i++) {
+                b[i] = B[i * k + c];
+                x[i] = X[i * k + c];
+            }
+            if (!compararVectores(x, resolverLU(lu, n, piv, b)))
+                return false;
+        }
+        return true;
+    }
+
     public static boolean compararVectores(double[] a, double[] b) {
         double tol = 1e-6;
         if (a.length != b.length) return false;
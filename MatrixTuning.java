@@ -0,0 +1,287 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Random;
+
+import Parallel_Common.ParallelRuntime;
+
+/**
+ * Ajuste automático de la multiplicación de matrices para la máquina actual.
+ *
+ * Mide el núcleo directo frente a un nivel de Strassen en varios tamaños para
+ * elegir el umbral de recursión (THRESHOLD), y la versión ForkJoin con varios
+ * cortes de profundidad para elegir cuántos niveles se paralelizan. El
+ * resultado se guarda en un perfil local que se carga al arrancar; si no hay
+ * perfil se usan valores por defecto.
+ *
+ * Uso: java MatrixTuning   (escribe el perfil)
+ * Ubicación del perfil: -Dmatrix.tuning=ruta, o ~/.parallel-algorithms/matrix-tuning.properties
+ */
+public class MatrixTuning {
+
+    static final int DEFAULT_THRESHOLD = 128;
+
+    // Umbral cuando Strassen no gana en ningún tamaño medido: nunca se recursa
+    // (en el perfil se guarda como "none")
+    static final int NO_RECURSION = Integer.MAX_VALUE;
+
+    // Tamaños de hoja candidatos: se compara GEMM(2s) con un nivel de Strassen sobre hojas de s
+    static final int[] LEAF_SIZES = {32, 48, 64, 96, 128, 192, 256, 384};
+
+    // Profundidades de paralelismo candidatas y tamaño usado para medirlas
+    static final int MAX_PARALLEL_DEPTH = 4;
+    static final int DEPTH_PROBE_SIZE = 1024;
+
+    static final int WARMUP_RUNS = 2;
+    static final int MEASURED_RUNS = 5;
+
+    private static final Properties PROFILE = load();
+
+    /**
+     * Umbral de recursión del perfil (o el valor por defecto)
+     */
+    public static int threshold() {
+        String value = PROFILE.getProperty("threshold");
+        if (value != null && value.trim().equals("none")) {
+            return NO_RECURSION;
+        }
+        return readInt("threshold", DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Niveles en los que se crean tareas paralelas (por defecto, los
+     * necesarios para que 7^d subproblemas cubran los hilos de ParallelRuntime)
+     */
+    public static int parallelDepth() {
+        return readInt("parallelDepth", defaultParallelDepth());
+    }
+
+    static int defaultParallelDepth() {
+        int cores = ParallelRuntime.workers();
+        int depth = 1;
+        for (long tasks = 7; tasks < cores; tasks *= 7) {
+            depth++;
+        }
+        return depth;
+    }
+
+    static Path profilePath() {
+        String custom = System.getProperty("matrix.tuning");
+        if (custom != null) {
+            return Paths.get(custom);
+        }
+        return Paths.get(System.getProperty("user.home"), ".parallel-algorithms", "matrix-tuning.properties");
+    }
+
+    private static Properties load() {
+        Properties p = new Properties();
+        Path path = profilePath();
+        if (Files.isReadable(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                p.load(in);
+            } catch (IOException e) {
+                System.err.println("No se pudo leer el perfil " + path + ": " + e.getMessage());
+            }
+        }
+        return p;
+    }
+
+    private static int readInt(String key, int defaultValue) {
+        String value = PROFILE.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Programa de ajuste: mide, muestra y guarda el perfil
+     */
+    public static void main(String[] args) throws IOException {
+        int cores = ParallelRuntime.workers();
+        System.out.println("Ajustando multiplicación de matrices (" + cores + " hilos)...");
+
+        int threshold = tuneThreshold();
+        Properties p = new Properties();
+        if (threshold == NO_RECURSION) {
+            // Sin recursión la versión ForkJoin no crea tareas: no hay profundidad que medir
+            System.out.println("  - Umbral de recursión elegido: ninguno (Strassen no gana)");
+            p.setProperty("threshold", "none");
+        } else {
+            System.out.println("  - Umbral de recursión elegido: " + threshold);
+            int depth = tuneParallelDepth(threshold);
+            System.out.println("  - Profundidad paralela elegida: " + depth);
+            p.setProperty("threshold", Integer.toString(threshold));
+            p.setProperty("parallelDepth", Integer.toString(depth));
+        }
+        p.setProperty("processors", Integer.toString(cores));
+        Path path = profilePath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(path)) {
+            p.store(out, "Perfil de MatrixTuning");
+        }
+        System.out.println("Perfil guardado en " + path);
+    }
+
+    /**
+     * Devuelve el menor tamaño de hoja s a partir del cual un nivel de
+     * Strassen sobre 2s gana al núcleo directo para s y todos los mayores,
+     * o NO_RECURSION si no gana de forma estable en los tamaños medidos
+     */
+    static int tuneThreshold() {
+        int chosen = -1;
+        for (int s : LEAF_SIZES) {
+            int n = 2 * s;
+            double[] a = randomFlat(n * n, 1);
+            double[] b = randomFlat(n * n, 2);
+            double[] c = new double[n * n];
+            // Temporales de Strassen fuera de la medida, como el Workspace de la recursión real
+            double[] sa = new double[s * s];
+            double[] sb = new double[s * s];
+            double[] p = new double[s * s];
+
+            long direct = bestTime(() -> GemmKernel.multiply(a, 0, n, b, 0, n, c, 0, n, n, n, n, false));
+            long oneLevel = bestTime(() -> strassenOneLevel(a, b, c, n, sa, sb, p));
+            boolean recursionWins = oneLevel < direct;
+            System.out.printf("    n=%4d  directo %8.3f ms  un nivel %8.3f ms%s%n",
+                              n, direct / 1e6, oneLevel / 1e6, recursionWins ? "  <- Strassen" : "");
+
+            if (recursionWins) {
+                if (chosen < 0) {
+                    chosen = s;
+                }
+            } else {
+                chosen = -1;
+            }
+        }
+        return chosen > 0 ? chosen : NO_RECURSION;
+    }
+
+    /**
+     * Elige la profundidad de paralelismo más rápida para la versión ForkJoin,
+     * medida con el umbral de recursión que se va a guardar
+     */
+    static int tuneParallelDepth(int threshold) {
+        int n = DEPTH_PROBE_SIZE;
+        double[][] A = new double[n][];
+        double[][] B = new double[n][];
+        double[] a = randomFlat(n * n, 3);
+        double[] b = randomFlat(n * n, 4);
+        for (int i = 0; i < n; i++) {
+            A[i] = Arrays.copyOfRange(a, i * n, (i + 1) * n);
+            B[i] = Arrays.copyOfRange(b, i * n, (i + 1) * n);
+        }
+
+        int best = 1;
+        long bestTime = Long.MAX_VALUE;
+        for (int depth = 1; depth <= MAX_PARALLEL_DEPTH; depth++) {
+            final int d = depth;
+            long t = bestTime(() -> CoppersmithWinogradMatrixMultiplication.multiplyParallel(A, B, d, threshold));
+            System.out.printf("    profundidad %d  %8.3f ms%n", depth, t / 1e6);
+            if (t < bestTime) {
+                bestTime = t;
+                best = depth;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Un nivel de Strassen sobre matrices planas n x n (n par) con hojas de
+     * GemmKernel; sa, sb y p son temporales de (n/2) x (n/2)
+     */
+    static void strassenOneLevel(double[] a, double[] b, double[] c, int n, double[] sa, double[] sb, double[] p) {
+        int h = n / 2;
+        int a11 = 0, a12 = h, a21 = h * n, a22 = a21 + h;
+        int b11 = 0, b12 = h, b21 = h * n, b22 = b21 + h;
+        int c11 = 0, c12 = h, c21 = h * n, c22 = c21 + h;
+
+        sum(sa, a, a11, a, a22, n, h, 1);
+        sum(sb, b, b11, b, b22, n, h, 1);
+        GemmKernel.multiply(sa, 0, h, sb, 0, h, p, 0, h, h, h, h, false);
+        put(c, c11, p, n, h, 0);
+        put(c, c22, p, n, h, 0);
+
+        sum(sa, a, a21, a, a22, n, h, 1);
+        GemmKernel.multiply(sa, 0, h, b, b11, n, p, 0, h, h, h, h, false);
+        put(c, c21, p, n, h, 0);
+        put(c, c22, p, n, h, -1);
+
+        sum(sb, b, b12, b, b22, n, h, -1);
+        GemmKernel.multiply(a, a11, n, sb, 0, h, p, 0, h, h, h, h, false);
+        put(c, c12, p, n, h, 0);
+        put(c, c22, p, n, h, 1);
+
+        sum(sb, b, b21, b, b11, n, h, -1);
+        GemmKernel.multiply(a, a22, n, sb, 0, h, p, 0, h, h, h, h, false);
+        put(c, c11, p, n, h, 1);
+        put(c, c21, p, n, h, 1);
+
+        sum(sa, a, a11, a, a12, n, h, 1);
+        GemmKernel.multiply(sa, 0, h, b, b22, n, p, 0, h, h, h, h, false);
+        put(c, c11, p, n, h, -1);
+        put(c, c12, p, n, h, 1);
+
+        sum(sa, a, a21, a, a11, n, h, -1);
+        sum(sb, b, b11, b, b12, n, h, 1);
+        GemmKernel.multiply(sa, 0, h, sb, 0, h, p, 0, h, h, h, h, false);
+        put(c, c22, p, n, h, 1);
+
+        sum(sa, a, a12, a, a22, n, h, -1);
+        sum(sb, b, b21, b, b22, n, h, 1);
+        GemmKernel.multiply(sa, 0, h, sb, 0, h, p, 0, h, h, h, h, false);
+        put(c, c11, p, n, h, 1);
+    }
+
+    // dst (h x h) = x + sign * y, con x e y cuadrantes de paso ld
+    private static void sum(double[] dst, double[] x, int xOff, double[] y, int yOff, int ld, int h, double sign) {
+        for (int i = 0; i < h; i++) {
+            for (int j = 0; j < h; j++) {
+                dst[i * h + j] = x[xOff + i * ld + j] + sign * y[yOff + i * ld + j];
+            }
+        }
+    }
+
+    // Cuadrante de c = p (sign 0) o cuadrante += sign * p
+    private static void put(double[] c, int cOff, double[] p, int ld, int h, double sign) {
+        for (int i = 0; i < h; i++) {
+            for (int j = 0; j < h; j++) {
+                int idx = cOff + i * ld + j;
+                c[idx] = sign == 0 ? p[i * h + j] : c[idx] + sign * p[i * h + j];
+            }
+        }
+    }
+
+    private static long bestTime(Runnable run) {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            run.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static double[] randomFlat(int size, long seed) {
+        Random rand = new Random(seed);
+        double[] v = new double[size];
+        for (int i = 0; i < size; i++) {
+            v[i] = rand.nextDouble() * 10;
+        }
+        return v;
+    }
+}
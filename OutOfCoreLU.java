@@ -0,0 +1,469 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Parallel_Common.ParallelRuntime;
+
+// Factorización LU fuera de memoria (out-of-core). La matriz vive en un archivo como una
+// sucesión de paneles de columnas; cada panel es una pila vertical de bloques de
+// anchoPanel columnas guardada fila a fila. Los paneles se leen y escriben con E/S
+// posicional del canal a través de un buffer directo reutilizado por hilo, sin mapeos:
+// un MappedByteBuffer por panel solo se libera con el GC y con matrices de decenas de
+// GB agota el límite de mapeos del proceso. La variante left-looking lee
+// cada panel destino una vez, recorre los paneles ya factorizados a su izquierda
+// (precargando el siguiente mientras se aplica el actual) y escribe L y U empaquetadas
+// de vuelta en el mismo archivo.
+//
+// El pivoteo es parcial sobre toda la columna. Los intercambios de cada panel no se
+// aplican a los paneles anteriores ya escritos (como en dgbtrf): L queda con las
+// permutaciones intercaladas y resolver() las aplica en el mismo orden.
+//
+// Tras el bloque n×n, factorizar() añade los pivotes y una cola fija (n, anchoPanel y una
+// marca), de modo que el archivo contiene la factorización completa: abrir() la carga
+// desde otro proceso y falla si faltan los pivotes.
+public class OutOfCoreLU implements AutoCloseable {
+    static final int L = 2048;
+    static final int ANCHO = 256;
+    static final int h = ParallelRuntime.workers();
+
+    // Tamaño del buffer directo de transferencia de cada hilo
+    static final int BYTES_TRANSFERENCIA = 4 << 20;
+    // Cola del archivo factorizado: n, anchoPanel y la marca, tras los pivotes
+    static final long MARCA = 0x4C55_4F4F_4350_4956L;
+    static final int BYTES_COLA = 2 * Integer.BYTES + Long.BYTES;
+
+    private final FileChannel canal;
+    private final int n;
+    private final int anchoPanel;
+    private final int numPaneles;
+    private final int[] piv;
+    private boolean factorizada;
+    private final ThreadLocal<ByteBuffer> transferencia =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BYTES_TRANSFERENCIA));
+
+    // Abre (o crea) el archivo de una matriz por factorizar. Si tenía una factorización
+    // anterior, sus pivotes se descartan.
+    public OutOfCoreLU(Path archivo, int n, int anchoPanel) throws IOException {
+        this(abrirCanal(archivo, n, anchoPanel), n, anchoPanel);
+        long bytes = bytesMatriz(n);
+        if (canal.size() > bytes) {
+            canal.truncate(bytes);
+        } else if (canal.size() < bytes) {
+            // Extiende el archivo (disperso en la mayoría de sistemas de archivos)
+            canal.write(ByteBuffer.allocate(1), bytes - 1);
+        }
+    }
+
+    private OutOfCoreLU(FileChannel canal, int n, int anchoPanel) {
+        this.canal = canal;
+        this.n = n;
+        this.anchoPanel = anchoPanel;
+        this.numPaneles = (n + anchoPanel - 1) / anchoPanel;
+        this.piv = new int[n];
+    }
+
+    private static FileChannel abrirCanal(Path archivo, int n, int anchoPanel) throws IOException {
+        validar(n, anchoPanel);
+        return FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static void validar(int n, int anchoPanel) {
+        if (n <= 0 || anchoPanel <= 0) {
+            throw new IllegalArgumentException("Dimensiones no válidas: n=" + n + ", anchoPanel=" + anchoPanel);
+        }
+        if ((long) n * anchoPanel > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Un panel de " + n + "x" + anchoPanel
+                    + " no cabe en un array; reduce anchoPanel");
+        }
+    }
+
+    private static long bytesMatriz(int n) {
+        return (long) n * n * Double.BYTES;
+    }
+
+    // Abre un archivo ya factorizado (por este u otro proceso) y carga sus pivotes.
+    public static OutOfCoreLU abrir(Path archivo) throws IOException {
+        FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long tamano = canal.size();
+            if (tamano < BYTES_COLA) {
+                throw new IOException(archivo + " no contiene una factorización LU (faltan los pivotes)");
+            }
+            ByteBuffer cola = leerCompleto(canal, tamano - BYTES_COLA, BYTES_COLA);
+            int n = cola.getInt();
+            int anchoPanel = cola.getInt();
+            if (cola.getLong() != MARCA || n <= 0 || anchoPanel <= 0
+                    || tamano != bytesMatriz(n) + (long) n * Integer.BYTES + BYTES_COLA) {
+                throw new IOException(archivo + " no contiene una factorización LU (faltan los pivotes)");
+            }
+            validar(n, anchoPanel);
+
+            OutOfCoreLU lu = new OutOfCoreLU(canal, n, anchoPanel);
+            ByteBuffer pivotes = leerCompleto(canal, bytesMatriz(n), n * Integer.BYTES);
+            pivotes.asIntBuffer().get(lu.piv);
+            for (int i = 0; i < n; i++) {
+                if (lu.piv[i] < i || lu.piv[i] >= n) {
+                    throw new IOException("Pivote no válido en la fila " + i + " de " + archivo);
+                }
+            }
+            lu.factorizada = true;
+            return lu;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer leerCompleto(FileChannel canal, long posicion, int bytes) throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(bytes);
+        while (bb.hasRemaining()) {
+            if (canal.read(bb, posicion + bb.position()) < 0) {
+                throw new EOFException("Fin del archivo en la posición " + (posicion + bb.position()));
+            }
+        }
+        return bb.flip();
+    }
+
+    // Pivotes y cola tras el bloque n×n; la marca va al final, así que un archivo
+    // a medio factorizar no se confunde con uno completo.
+    private void guardarPivotes() throws IOException {
+        ByteBuffer bb = ByteBuffer.allocate(n * Integer.BYTES + BYTES_COLA);
+        bb.asIntBuffer().put(piv);
+        bb.position(n * Integer.BYTES);
+        bb.putInt(n).putInt(anchoPanel).putLong(MARCA).flip();
+        long posicion = bytesMatriz(n);
+        while (bb.hasRemaining()) {
+            canal.write(bb, posicion + bb.position());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("Tamaño de matriz (L): " + L);
+        System.out.println("Ancho de panel: " + ANCHO);
+        System.out.println("Número de hilos (h): " + h);
+
+        double[] b = LUParallelSolver.generarVectorAleatorio(L);
+        Path archivo = Files.createTempFile("lu-ooc", ".bin");
+
+        try (OutOfCoreLU lu = new OutOfCoreLU(archivo, L, ANCHO)) {
+            // Mismas filas que generarMatrizAleatoria, generadas una a una sin tener A en memoria
+            Random rand = new Random(0);
+            double[] fila = new double[L];
+            for (int i = 0; i < L; i++) {
+                for (int j = 0; j < L; j++)
+                    fila[j] = 1 + rand.nextDouble() * 10;
+                lu.escribirFila(i, fila);
+            }
+
+            long start = System.nanoTime();
+            lu.factorizar();
+            double[] x = lu.resolver(b);
+            long end = System.nanoTime();
+
+            double[] enMemoria = LUParallelSolver.aplanar(LUParallelSolver.generarMatrizAleatoria(L));
+            int[] pivMem = new int[L];
+            long startMem = System.nanoTime();
+            LUParallelSolver.luEnSitioParalelo(enMemoria, L, pivMem);
+            double[] xMem = LUParallelSolver.resolverLU(enMemoria, L, pivMem, b);
+            long endMem = System.nanoTime();
+
+            System.out.printf("Tiempo fuera de memoria: %.5f segundos\n", (end - start) / 1e9);
+            System.out.printf("Tiempo en memoria:       %.5f segundos\n", (endMem - startMem) / 1e9);
+            System.out.println("¿Soluciones similares?: " + LUParallelSolver.compararVectores(x, xMem));
+
+            // Otro "proceso": abre el archivo factorizado solo con su ruta
+            try (OutOfCoreLU reabierta = OutOfCoreLU.abrir(archivo)) {
+                System.out.println("¿Misma solución al reabrir el archivo?: "
+                        + Arrays.equals(x, reabierta.resolver(b)));
+            }
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    private int inicioPanel(int j) {
+        return j * anchoPanel;
+    }
+
+    private int anchoDe(int j) {
+        return Math.min(anchoPanel, n - j * anchoPanel);
+    }
+
+    // Posición en el archivo de la fila fila0 del panel j.
+    private long posicion(int j, int fila0) {
+        return ((long) n * inicioPanel(j) + (long) fila0 * anchoDe(j)) * Double.BYTES;
+    }
+
+    // Lee cuantos doubles desde la posición del archivo, por tramos del buffer directo.
+    private void leer(long posicion, double[] destino, int desde, int cuantos) throws IOException {
+        ByteBuffer bb = transferencia.get();
+        while (cuantos > 0) {
+            int m = Math.min(cuantos, bb.capacity() / Double.BYTES);
+            bb.clear().limit(m * Double.BYTES);
+            while (bb.hasRemaining()) {
+                if (canal.read(bb, posicion + bb.position()) < 0) {
+                    throw new EOFException("Fin del archivo en la posición " + (posicion + bb.position()));
+                }
+            }
+            bb.flip();
+            bb.asDoubleBuffer().get(destino, desde, m);
+            posicion += (long) m * Double.BYTES;
+            desde += m;
+            cuantos -= m;
+        }
+    }
+
+    private void escribir(long posicion, double[] origen, int desde, int cuantos) throws IOException {
+        ByteBuffer bb = transferencia.get();
+        while (cuantos > 0) {
+            int m = Math.min(cuantos, bb.capacity() / Double.BYTES);
+            bb.clear();
+            bb.asDoubleBuffer().put(origen, desde, m);
+            bb.limit(m * Double.BYTES);
+            while (bb.hasRemaining()) {
+                canal.write(bb, posicion + bb.position());
+            }
+            posicion += (long) m * Double.BYTES;
+            desde += m;
+            cuantos -= m;
+        }
+    }
+
+    public void escribirFila(int i, double[] fila) throws IOException {
+        if (factorizada) {
+            throw new IllegalStateException("El archivo ya contiene la factorización");
+        }
+        for (int j = 0; j < numPaneles; j++) {
+            escribir(posicion(j, i), fila, inicioPanel(j), anchoDe(j));
+        }
+    }
+
+    // Lee las filas [fila0, n) del panel j en buf (row-major, ancho del panel).
+    private double[] leerPanel(int j, int fila0, double[] buf) {
+        try {
+            leer(posicion(j, fila0), buf, 0, (n - fila0) * anchoDe(j));
+            return buf;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirPanel(int j, double[] buf) throws IOException {
+        escribir(posicion(j, 0), buf, 0, n * anchoDe(j));
+    }
+
+    public void factorizar() throws IOException, InterruptedException {
+        if (factorizada) {
+            throw new IllegalStateException("El archivo ya contiene la factorización");
+        }
+        // Hilo dedicado a la lectura anticipada: la E/S bloqueante no ocupa hilos de cálculo
+        ExecutorService precarga = Executors.newSingleThreadExecutor();
+
+        double[] destino = new double[n * anchoPanel];
+        // Doble buffer: uno se aplica mientras el otro se llena en segundo plano
+        double[][] izquierda = {new double[n * anchoPanel], new double[n * anchoPanel]};
+
+        try {
+            for (int j = 0; j < numPaneles; j++) {
+                final int c0 = inicioPanel(j);
+                final int w = anchoDe(j);
+                leerPanel(j, 0, destino);
+
+                // Intercambios de los paneles anteriores sobre este panel
+                for (int r = 0; r < c0; r++)
+                    intercambiarFilas(destino, w, r, piv[r]);
+
+                Future<double[]> siguiente = j > 0 ? leerAsync(precarga, 0, izquierda[0]) : null;
+                for (int k = 0; k < j; k++) {
+                    double[] lk = obtener(siguiente);
+                    if (k + 1 < j) {
+                        siguiente = leerAsync(precarga, k + 1, izquierda[(k + 1) & 1]);
+                    }
+                    aplicarPanel(lk, k, destino, w, c0);
+                }
+
+                factorizarPanel(destino, w, c0);
+                escribirPanel(j, destino);
+            }
+            guardarPivotes();
+            factorizada = true;
+        } finally {
+            precarga.shutdown();
+        }
+    }
+
+    private Future<double[]> leerAsync(ExecutorService precarga, int k, double[] buf) {
+        int k0 = inicioPanel(k);
+        return precarga.submit(() -> leerPanel(k, k0, buf));
+    }
+
+    private static double[] obtener(Future<double[]> f) throws IOException, InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Aplica el panel factorizado k (filas desde k0, ya cargado en lk) al panel destino:
+    // U_kj = L_kk^-1 · A_kj y luego A_ij -= L_ik · U_kj para las filas inferiores.
+    private void aplicarPanel(double[] lk, int k, double[] destino, int w, int c0) {
+        final int k0 = inicioPanel(k);
+        final int wk = anchoDe(k);
+        final int k1 = k0 + wk;
+
+        // Intercambios posteriores al panel k (solo afectan a filas >= k1)
+        for (int r = k1; r < c0; r++)
+            intercambiarFilas(lk, wk, r - k0, piv[r] - k0);
+
+        for (int r = k0; r < k1; r++) {
+            int filaL = (r - k0) * wk;
+            int filaD = r * w;
+            for (int c = k0; c < r; c++) {
+                double lrc = lk[filaL + c - k0];
+                if (lrc != 0) {
+                    int filaC = c * w;
+                    for (int q = 0; q < w; q++)
+                        destino[filaD + q] -= lrc * destino[filaC + q];
+                }
+            }
+        }
+
+        if (k1 >= n) {
+            return;
+        }
+        ParallelRuntime.parallelFor(k1, n, (lo, hi) -> {
+            for (int r = lo; r < hi; r++) {
+                int filaL = (r - k0) * wk;
+                int filaD = r * w;
+                for (int c = k0; c < k1; c++) {
+                    double lrc = lk[filaL + c - k0];
+                    if (lrc != 0) {
+                        int filaC = c * w;
+                        for (int q = 0; q < w; q++)
+                            destino[filaD + q] -= lrc * destino[filaC + q];
+                    }
+                }
+            }
+        });
+    }
+
+    // LU con pivoteo parcial de las filas [c0, n) del panel (alto y estrecho).
+    private void factorizarPanel(double[] p, int w, int c0) {
+        for (int c = 0; c < w; c++) {
+            final int col = c;
+            final int filaK = c0 + c;
+
+            int filaPivote = filaK;
+            double max = Math.abs(p[filaK * w + col]);
+            for (int r = filaK + 1; r < n; r++) {
+                double v = Math.abs(p[r * w + col]);
+                if (v > max) {
+                    max = v;
+                    filaPivote = r;
+                }
+            }
+            if (max == 0) {
+                throw new ArithmeticException("Matriz singular en la columna " + filaK);
+            }
+            piv[filaK] = filaPivote;
+            intercambiarFilas(p, w, filaK, filaPivote);
+
+            final double pivote = p[filaK * w + col];
+            if (filaK + 1 >= n) {
+                continue;
+            }
+            ParallelRuntime.parallelFor(filaK + 1, n, (lo, hi) -> {
+                for (int r = lo; r < hi; r++) {
+                    int fila = r * w;
+                    double lrc = p[fila + col] / pivote;
+                    p[fila + col] = lrc;
+                    if (lrc != 0) {
+                        for (int q = col + 1; q < w; q++)
+                            p[fila + q] -= lrc * p[filaK * w + q];
+                    }
+                }
+            });
+        }
+    }
+
+    private static void intercambiarFilas(double[] p, int w, int r1, int r2) {
+        if (r1 == r2) return;
+        int a = r1 * w;
+        int b = r2 * w;
+        for (int q = 0; q < w; q++) {
+            double tmp = p[a + q];
+            p[a + q] = p[b + q];
+            p[b + q] = tmp;
+        }
+    }
+
+    // Resuelve A·x = b con los factores del archivo, leyendo un panel cada vez.
+    public double[] resolver(double[] b) throws IOException {
+        if (!factorizada) {
+            throw new IllegalStateException("Falta factorizar() o abrir un archivo factorizado");
+        }
+        double[] x = b.clone();
+        double[] buf = new double[n * anchoPanel];
+
+        // Hacia adelante: permutaciones intercaladas con las columnas de L
+        for (int k = 0; k < numPaneles; k++) {
+            int k0 = inicioPanel(k);
+            int wk = anchoDe(k);
+            leerPanel(k, k0, buf);
+            for (int c = k0; c < k0 + wk; c++) {
+                int p = piv[c];
+                if (p != c) {
+                    double tmp = x[c];
+                    x[c] = x[p];
+                    x[p] = tmp;
+                }
+            }
+            for (int c = k0; c < k0 + wk; c++) {
+                double xc = x[c];
+                if (xc == 0) continue;
+                for (int r = c + 1; r < n; r++)
+                    x[r] -= buf[(r - k0) * wk + (c - k0)] * xc;
+            }
+        }
+
+        // Hacia atrás por columnas de U, del último panel al primero
+        for (int j = numPaneles - 1; j >= 0; j--) {
+            int c0 = inicioPanel(j);
+            int w = anchoDe(j);
+            leerPanel(j, 0, buf);
+            for (int c = c0 + w - 1; c >= c0; c--) {
+                double xc = x[c] / buf[c * w + (c - c0)];
+                x[c] = xc;
+                for (int r = 0; r < c; r++)
+                    x[r] -= buf[r * w + (c - c0)] * xc;
+            }
+        }
+
+        return x;
+    }
+
+    public int[] pivotes() {
+        return piv.clone();
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -1,5 +1,8 @@
 import java.util.Random;
 
+import Parallel_Common.Metrics;
+import Parallel_Common.ParallelRuntime;
+
 public class ParallelPSO {
 
     // Parámetros del PSO
@@ -122,7 +125,7 @@ public class ParallelPSO {
     }
 
     // --------------------------------------------------------------
-    // Versión paralela del PSO usando hilos
+    // Versión paralela del PSO sobre los hilos de ParallelRuntime
     public static PSOResult psoParallel(Particle[] swarm) {
         GlobalBest gBest = new GlobalBest();
         Random rnd = new Random();
@@ -138,52 +141,35 @@ public class ParallelPSO {
             }
         }
 
-        // Definir el número de hilos a utilizar (por ejemplo, los núcleos disponibles)
-        int numThreads = Runtime.getRuntime().availableProcessors();
-        int blockSize = (swarm.length + numThreads - 1) / numThreads;
-
-        // Para cada iteración se lanzan hilos que actualizan un bloque del swarm
+        // Cada iteración reparte el swarm en tramos sobre el pool compartido
+        // (los hilos se reutilizan entre iteraciones en lugar de crearse de nuevo)
         for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
-            Thread[] threads = new Thread[numThreads];
-            for (int t = 0; t < numThreads; t++) {
-                final int startIndex = t * blockSize;
-                final int endIndex = Math.min(swarm.length, startIndex + blockSize);
-                threads[t] = new Thread(() -> {
-                    // Cada hilo usa su propia instancia de Random
-                    Random threadRnd = new Random();
-                    for (int i = startIndex; i < endIndex; i++) {
-                        Particle p = swarm[i];
-                        for (int d = 0; d < DIMENSION; d++) {
-                            double r1 = threadRnd.nextDouble();
-                            double r2 = threadRnd.nextDouble();
-                            p.velocity[d] = W * p.velocity[d] +
-                                            C1 * r1 * (p.pBest[d] - p.position[d]) +
-                                            C2 * r2 * (gBest.bestPosition[d] - p.position[d]);
-                            if (p.velocity[d] < MIN_VEL) p.velocity[d] = MIN_VEL;
-                            if (p.velocity[d] > MAX_VEL) p.velocity[d] = MAX_VEL;
-                            p.position[d] += p.velocity[d];
-                            if (p.position[d] < MIN_POS) p.position[d] = MIN_POS;
-                            if (p.position[d] > MAX_POS) p.position[d] = MAX_POS;
-                        }
-                        double fitness = objective(p.position);
-                        if (fitness < p.pBestFitness) {
-                            p.pBestFitness = fitness;
-                            System.arraycopy(p.position, 0, p.pBest, 0, DIMENSION);
-                        }
-                        // Actualización del global best de forma sincronizada
-                        gBest.updateIfBetter(p, fitness);
+            ParallelRuntime.parallelFor(0, swarm.length, (startIndex, endIndex) -> {
+                // Cada tramo usa su propia instancia de Random
+                Random threadRnd = new Random();
+                for (int i = startIndex; i < endIndex; i++) {
+                    Particle p = swarm[i];
+                    for (int d = 0; d < DIMENSION; d++) {
+                        double r1 = threadRnd.nextDouble();
+                        double r2 = threadRnd.nextDouble();
+                        p.velocity[d] = W * p.velocity[d] +
+                                        C1 * r1 * (p.pBest[d] - p.position[d]) +
+                                        C2 * r2 * (gBest.bestPosition[d] - p.position[d]);
+                        if (p.velocity[d] < MIN_VEL) p.velocity[d] = MIN_VEL;
+                        if (p.velocity[d] > MAX_VEL) p.velocity[d] = MAX_VEL;
+                        p.position[d] += p.velocity[d];
+                        if (p.position[d] < MIN_POS) p.position[d] = MIN_POS;
+                        if (p.position[d] > MAX_POS) p.position[d] = MAX_POS;
                     }
-                });
-                threads[t].start();
-            }
-            // Esperar a que todos los hilos terminen la iteración
-            for (int t = 0; t < numThreads; t++) {
-                try {
-                    threads[t].join();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                    double fitness = objective(p.position);
+                    if (fitness < p.pBestFitness) {
+                        p.pBestFitness = fitness;
+                        System.arraycopy(p.position, 0, p.pBest, 0, DIMENSION);
+                    }
+                    // Actualización del global best de forma sincronizada
+                    gBest.updateIfBetter(p, fitness);
                 }
-            }
+            });
         }
         return new PSOResult(gBest.bestFitness, gBest.bestPosition);
     }
@@ -251,9 +237,11 @@ public class ParallelPSO {
         System.out.println("Mejor fitness (serial): " + resultadoSerial.bestFitness);
 
         System.out.println("\nEjecutando PSO en paralelo con hilos...");
+        Metrics.Region region = Metrics.region("PSO paralelo");
         long inicioParalelo = System.nanoTime();
         PSOResult resultadoParalelo = psoParallel(swarmParalelo);
         long finParalelo = System.nanoTime();
+        region.close();
         long tiempoParaleloMs = (finParalelo - inicioParalelo) / 1000000;
         System.out.println("Tiempo de ejecución paralelo (ms): " + tiempoParaleloMs);
         System.out.println("Mejor fitness (paralelo): " + resultadoParalelo.bestFitness);
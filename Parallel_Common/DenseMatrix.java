@@ -0,0 +1,310 @@
+package Parallel_Common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Matriz densa de doubles por filas, compartida por la multiplicación de
+ * matrices, LU y Dijkstra.
+ *
+ * Los datos están en un único arreglo double[] (en el heap) o, para
+ * matrices de más de 2^31 elementos o compartidas entre procesos, en
+ * trozos de memoria directa o de un archivo mapeado. Una matriz es una
+ * vista (desplazamiento, paso de fila, filas, columnas) sobre ese
+ * almacenamiento: view() devuelve submatrices y bloques sin copiar.
+ *
+ * Los algoritmos trabajan sin copias sobre vistas en el heap
+ * (array(), offset(), stride()); las vistas fuera del heap se leen por
+ * filas con getRow/setRow. Los que necesitan el arreglo (LU en sitio,
+ * multiplicación) rechazan las matrices fuera del heap con requireHeap en
+ * lugar de copiarlas: quien quiera la copia la pide con heapCopy().
+ */
+public final class DenseMatrix {
+
+    // Doubles por trozo fuera del heap (1 GiB, por debajo del límite de un ByteBuffer)
+    static final int CHUNK_SHIFT = 27;
+    static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Mayor arreglo que la JVM reserva de forma fiable
+    static final int MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    private final double[] data;
+    private final DoubleBuffer[] chunks;
+    private final long offset;
+    private final long stride;
+    private final int rows;
+    private final int cols;
+
+    private DenseMatrix(double[] data, DoubleBuffer[] chunks, long offset, long stride, int rows, int cols) {
+        if (rows < 0 || cols < 0 || stride < cols) {
+            throw new IllegalArgumentException("Vista inválida: " + rows + "x" + cols + " con paso " + stride);
+        }
+        this.data = data;
+        this.chunks = chunks;
+        this.offset = offset;
+        this.stride = stride;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Matriz de ceros en el heap
+     */
+    public static DenseMatrix heap(int rows, int cols) {
+        long size = (long) rows * cols;
+        if (size > MAX_ARRAY) {
+            throw new IllegalArgumentException(rows + "x" + cols + " no cabe en un arreglo; usar offHeap o mapped");
+        }
+        return new DenseMatrix(new double[(int) size], null, 0, cols, rows, cols);
+    }
+
+    /**
+     * Vista sin copia sobre un arreglo por filas (paso = cols)
+     */
+    public static DenseMatrix wrap(double[] data, int rows, int cols) {
+        return wrap(data, 0, cols, rows, cols);
+    }
+
+    /**
+     * Vista sin copia sobre un arreglo con desplazamiento y paso de fila
+     */
+    public static DenseMatrix wrap(double[] data, int offset, int stride, int rows, int cols) {
+        if (rows > 0 && (long) offset + (long) (rows - 1) * stride + cols > data.length) {
+            throw new IllegalArgumentException("La vista excede el arreglo de " + data.length + " elementos");
+        }
+        return new DenseMatrix(data, null, offset, stride, rows, cols);
+    }
+
+    /**
+     * Copia de una matriz dentada (todas las filas del mismo largo)
+     */
+    public static DenseMatrix of(double[][] matrix) {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        DenseMatrix m = heap(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            m.setRow(i, matrix[i], 0);
+        }
+        return m;
+    }
+
+    /**
+     * Copia de una matriz dentada de enteros (por ejemplo, pesos de un grafo)
+     */
+    public static DenseMatrix of(int[][] matrix) {
+        int rows = matrix.length;
+        int cols = rows == 0 ? 0 : matrix[0].length;
+        DenseMatrix m = heap(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                m.data[i * cols + j] = matrix[i][j];
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Matriz de ceros en memoria directa (fuera del heap, sin límite de 2^31)
+     */
+    public static DenseMatrix offHeap(int rows, int cols) {
+        long size = (long) rows * cols;
+        DoubleBuffer[] chunks = new DoubleBuffer[numChunks(size)];
+        for (int c = 0; c < chunks.length; c++) {
+            int length = (int) Math.min(CHUNK_SIZE, size - ((long) c << CHUNK_SHIFT));
+            chunks[c] = ByteBuffer.allocateDirect(length * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+        return new DenseMatrix(null, chunks, 0, cols, rows, cols);
+    }
+
+    /**
+     * Matriz guardada en un archivo (doubles por filas, mismo orden de bytes
+     * que OutOfCoreLU). Con writable el archivo se crea o amplía si hace
+     * falta; sin él debe contener ya las rows x cols entradas. El mapeo
+     * sigue siendo válido después de cerrar el canal
+     */
+    public static DenseMatrix mapped(Path file, int rows, int cols, boolean writable) throws IOException {
+        long size = (long) rows * cols;
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE}
+                : new StandardOpenOption[] {StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            if (!writable && channel.size() < size * Double.BYTES) {
+                throw new IOException(file + " tiene " + channel.size() + " bytes; se esperaban " + size * Double.BYTES);
+            }
+            DoubleBuffer[] chunks = new DoubleBuffer[numChunks(size)];
+            for (int c = 0; c < chunks.length; c++) {
+                long start = (long) c << CHUNK_SHIFT;
+                long length = Math.min(CHUNK_SIZE, size - start);
+                chunks[c] = channel.map(mode, start * Double.BYTES, length * Double.BYTES).asDoubleBuffer();
+            }
+            return new DenseMatrix(null, chunks, 0, cols, rows, cols);
+        }
+    }
+
+    private static int numChunks(long size) {
+        return (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public long stride() {
+        return stride;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public boolean isHeap() {
+        return data != null;
+    }
+
+    /**
+     * Arreglo subyacente de una vista en el heap; el elemento (i, j) está en
+     * offset() + i * stride() + j
+     */
+    public double[] array() {
+        if (data == null) {
+            throw new IllegalStateException("La matriz no está en el heap");
+        }
+        return data;
+    }
+
+    public double get(int i, int j) {
+        long idx = offset + i * stride + j;
+        if (data != null) {
+            return data[(int) idx];
+        }
+        return chunks[(int) (idx >>> CHUNK_SHIFT)].get((int) (idx & CHUNK_MASK));
+    }
+
+    public void set(int i, int j, double value) {
+        long idx = offset + i * stride + j;
+        if (data != null) {
+            data[(int) idx] = value;
+        } else {
+            chunks[(int) (idx >>> CHUNK_SHIFT)].put((int) (idx & CHUNK_MASK), value);
+        }
+    }
+
+    /**
+     * Submatriz (o bloque) de rows x cols que empieza en (row, col), sin copia
+     */
+    public DenseMatrix view(int row, int col, int rows, int cols) {
+        if (row < 0 || col < 0 || rows < 0 || cols < 0 || row + rows > this.rows || col + cols > this.cols) {
+            throw new IndexOutOfBoundsException("Vista " + rows + "x" + cols + " en (" + row + ", " + col
+                                                + ") fuera de " + this.rows + "x" + this.cols);
+        }
+        return new DenseMatrix(data, chunks, offset + row * stride + col, stride, rows, cols);
+    }
+
+    /**
+     * Copia la fila i en dst[dOff .. dOff + cols)
+     */
+    public void getRow(int i, double[] dst, int dOff) {
+        long idx = offset + i * stride;
+        if (data != null) {
+            System.arraycopy(data, (int) idx, dst, dOff, cols);
+            return;
+        }
+        int done = 0;
+        while (done < cols) {
+            long pos = idx + done;
+            int within = (int) (pos & CHUNK_MASK);
+            int length = (int) Math.min(cols - done, CHUNK_SIZE - within);
+            chunks[(int) (pos >>> CHUNK_SHIFT)].get(within, dst, dOff + done, length);
+            done += length;
+        }
+    }
+
+    /**
+     * Escribe src[sOff .. sOff + cols) en la fila i
+     */
+    public void setRow(int i, double[] src, int sOff) {
+        long idx = offset + i * stride;
+        if (data != null) {
+            System.arraycopy(src, sOff, data, (int) idx, cols);
+            return;
+        }
+        int done = 0;
+        while (done < cols) {
+            long pos = idx + done;
+            int within = (int) (pos & CHUNK_MASK);
+            int length = (int) Math.min(cols - done, CHUNK_SIZE - within);
+            chunks[(int) (pos >>> CHUNK_SHIFT)].put(within, src, sOff + done, length);
+            done += length;
+        }
+    }
+
+    /**
+     * Copia el contenido en dst (mismas dimensiones)
+     */
+    public void copyTo(DenseMatrix dst) {
+        if (dst.rows != rows || dst.cols != cols) {
+            throw new IllegalArgumentException("Dimensiones distintas: " + rows + "x" + cols
+                                               + " y " + dst.rows + "x" + dst.cols);
+        }
+        if (dst.data != null) {
+            for (int i = 0; i < rows; i++) {
+                getRow(i, dst.data, (int) (dst.offset + i * dst.stride));
+            }
+            return;
+        }
+        double[] row = new double[cols];
+        for (int i = 0; i < rows; i++) {
+            getRow(i, row, 0);
+            dst.setRow(i, row, 0);
+        }
+    }
+
+    /**
+     * Copia contigua en el heap
+     */
+    public DenseMatrix heapCopy() {
+        DenseMatrix copy = heap(rows, cols);
+        copyTo(copy);
+        return copy;
+    }
+
+    /**
+     * La propia matriz si ya está en el heap; si no, una copia en el heap
+     */
+    public DenseMatrix onHeap() {
+        return data != null ? this : heapCopy();
+    }
+
+    /**
+     * La propia vista si está en el heap; si no, IllegalArgumentException
+     * con el motivo dado (para los algoritmos que solo trabajan sobre arreglos)
+     */
+    public DenseMatrix requireHeap(String reason) {
+        if (data == null) {
+            throw new IllegalArgumentException("Matriz " + rows + "x" + cols + " fuera del heap: " + reason);
+        }
+        return this;
+    }
+
+    /**
+     * Copia como matriz dentada
+     */
+    public double[][] toArray() {
+        double[][] result = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            getRow(i, result[i], 0);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,315 @@
+package Parallel_Common;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Instrumentación de las zonas calientes de los algoritmos: tiempo por fase,
+ * tiempo ocupado por hilo, espera en barreras, tareas robadas y memoria
+ * reservada, con eventos JFR propios además de contadores en memoria.
+ *
+ * Desactivada por defecto; se activa con -Dparallel.metrics=true o en
+ * ejecución con setEnabled. Desactivada, cada punto de medida cuesta una
+ * lectura de un volatile: start() devuelve 0 y end() no hace nada.
+ *
+ * Uso en los puntos de medida:
+ *   long t = Metrics.start();
+ *   ...
+ *   Metrics.end(Metrics.Phase.LU_PANEL, t);
+ * y en los programas, una región alrededor de cada ejecución medida:
+ *   try (Metrics.Region r = Metrics.region("LU paralelo")) { ... }
+ * que al cerrarse emite un evento parallel.Region y muestra el resumen.
+ * Las regiones restan contadores globales, así que dos regiones a la vez
+ * en el mismo proceso se mezclan.
+ *
+ * Con JFR: java -Dparallel.metrics=true -XX:StartFlightRecording=filename=rec.jfr ...
+ * y jfr print --events parallel.Phase,parallel.Region rec.jfr
+ */
+public final class Metrics {
+
+    /**
+     * Fases medidas en los algoritmos
+     */
+    public enum Phase {
+        STRASSEN_LEAF("strassen.leaf"),
+        STRASSEN_RECURSION("strassen.recursion"),
+        LU_PANEL("lu.panel"),
+        LU_UPDATE("lu.update"),
+        DIJKSTRA_SOURCE("dijkstra.source"),
+        BARRIER_WAIT("parallel.barrierWait");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean("parallel.metrics");
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final LongAdder[] COUNT = adders(PHASES.length);
+    private static final LongAdder[] NANOS = adders(PHASES.length);
+
+    // Tiempo ocupado por hilo (por nombre), con un acumulador en caché por hilo
+    private static final Map<String, LongAdder> BUSY = new ConcurrentHashMap<>();
+    private static final ThreadLocal<LongAdder> THREAD_BUSY = ThreadLocal.withInitial(
+            () -> BUSY.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()));
+
+    private static final Region DISABLED = new Region(null);
+
+    private Metrics() {
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Marca de inicio de una medida, o 0 si la instrumentación está desactivada
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Cierra la medida abierta con start() y la suma a la fase
+     */
+    public static void end(Phase phase, long start) {
+        if (start != 0L) {
+            record(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Suma una duración ya medida a la fase
+     */
+    public static void record(Phase phase, long nanos) {
+        COUNT[phase.ordinal()].increment();
+        NANOS[phase.ordinal()].add(nanos);
+        PhaseEvent event = new PhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = phase.label;
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tiempo de trabajo del hilo actual (un tramo de un bucle paralelo)
+     */
+    public static void busy(long nanos) {
+        THREAD_BUSY.get().add(nanos);
+    }
+
+    /**
+     * Abre una región de medida; sin instrumentación devuelve una región vacía
+     */
+    public static Region region(String name) {
+        return enabled ? new Region(name) : DISABLED;
+    }
+
+    /**
+     * Diferencia de contadores entre la apertura y el cierre de la región.
+     * Al cerrarse emite un evento JFR parallel.Region y muestra el resumen
+     */
+    public static final class Region implements AutoCloseable {
+        private final String name;
+        private final long startNanos;
+        private final long[] count;
+        private final long[] nanos;
+        private final Map<String, Long> busy;
+        private final long steals;
+        private final long allocated;
+        private String summary = "";
+
+        private Region(String name) {
+            this.name = name;
+            if (name == null) {
+                startNanos = 0;
+                count = nanos = null;
+                busy = null;
+                steals = allocated = 0;
+                return;
+            }
+            count = sums(COUNT);
+            nanos = sums(NANOS);
+            busy = busySnapshot();
+            steals = ParallelRuntime.pool().getStealCount();
+            allocated = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * Resumen de la región cerrada (vacío si no se midió)
+         */
+        public String summary() {
+            return summary;
+        }
+
+        @Override
+        public void close() {
+            if (name == null || !summary.isEmpty()) {
+                return;
+            }
+            long wall = System.nanoTime() - startNanos;
+            long stolen = ParallelRuntime.pool().getStealCount() - steals;
+            long bytes = Math.max(0, allocatedBytes() - allocated);
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Métricas [%s]: %.2f ms, %d tareas robadas, %.1f MB reservados%n",
+                                    name, wall / 1e6, stolen, bytes / 1048576.0));
+            for (Phase phase : PHASES) {
+                int p = phase.ordinal();
+                long calls = COUNT[p].sum() - count[p];
+                if (calls > 0) {
+                    sb.append(String.format("  - %-22s %10d medidas %12.2f ms%n",
+                                            phase.label, calls, (NANOS[p].sum() - nanos[p]) / 1e6));
+                }
+            }
+
+            // Reparto del trabajo entre hilos: ocupado frente al tiempo de la región
+            Map<String, Long> threads = new TreeMap<>();
+            for (Map.Entry<String, Long> e : busySnapshot().entrySet()) {
+                long delta = e.getValue() - busy.getOrDefault(e.getKey(), 0L);
+                if (delta > 0) {
+                    threads.put(e.getKey(), delta);
+                }
+            }
+            long totalBusy = 0, maxBusy = 0;
+            for (Map.Entry<String, Long> e : threads.entrySet()) {
+                long t = e.getValue();
+                totalBusy += t;
+                maxBusy = Math.max(maxBusy, t);
+                sb.append(String.format("  - %-22s ocupado %10.2f ms, inactivo %10.2f ms%n",
+                                        e.getKey(), t / 1e6, Math.max(0, wall - t) / 1e6));
+            }
+            double imbalance = threads.isEmpty() ? 1 : maxBusy / ((double) totalBusy / threads.size());
+            if (!threads.isEmpty()) {
+                sb.append(String.format("  - Desequilibrio (máximo / medio): %.2f%n", imbalance));
+            }
+            summary = sb.toString();
+
+            RegionEvent event = new RegionEvent();
+            if (event.shouldCommit()) {
+                event.region = name;
+                event.wall = wall;
+                event.busy = totalBusy;
+                event.threads = threads.size();
+                event.imbalance = imbalance;
+                event.stolenTasks = stolen;
+                event.allocated = bytes;
+                event.commit();
+            }
+            System.out.print(summary);
+        }
+    }
+
+    // Sin pila: se emite en cada medida y la pila sería la parte más cara
+    @Name("parallel.Phase")
+    @Label("Fase de algoritmo paralelo")
+    @Category("Parallel Algorithms")
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Fase")
+        String phase;
+
+        @Label("Duración")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+    }
+
+    @Name("parallel.Region")
+    @Label("Región medida")
+    @Category("Parallel Algorithms")
+    static final class RegionEvent extends Event {
+        @Label("Región")
+        String region;
+
+        @Label("Tiempo de pared")
+        @Timespan(Timespan.NANOSECONDS)
+        long wall;
+
+        @Label("Tiempo ocupado (suma de hilos)")
+        @Timespan(Timespan.NANOSECONDS)
+        long busy;
+
+        @Label("Hilos con trabajo")
+        int threads;
+
+        @Label("Desequilibrio (máximo / medio)")
+        double imbalance;
+
+        @Label("Tareas robadas")
+        long stolenTasks;
+
+        @Label("Memoria reservada")
+        @DataAmount
+        long allocated;
+    }
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static Map<String, Long> busySnapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> e : BUSY.entrySet()) {
+            snapshot.put(e.getKey(), e.getValue().sum());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Bytes reservados por todos los hilos vivos (0 si la JVM no lo mide)
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return 0;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,282 @@
+package Parallel_Common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+
+/**
+ * Entorno de ejecución paralela común a todos los algoritmos del proyecto.
+ *
+ * Un único ForkJoinPool (colas con robo de trabajo) con un número de hilos
+ * configurable, para que varios algoritmos ejecutados a la vez en el mismo
+ * proceso compartan los mismos hilos en lugar de crear cada uno los suyos.
+ * Ofrece bucles paralelos (parallelFor), reducciones (reduce) y ejecución de
+ * listas de trabajos (runAll); las tareas ForkJoin propias se lanzan con
+ * invoke.
+ *
+ * Configuración (propiedades del sistema):
+ * - parallel.workers: número de hilos (por defecto, los procesadores
+ *   disponibles, o el número de CPU de parallel.cpus).
+ * - parallel.cpus: lista de CPU sugeridas, p. ej. "0-3,8". La JVM no puede
+ *   fijar hilos a CPU; la lista dimensiona el pool y etiqueta cada hilo
+ *   con su CPU, pensada para lanzar el proceso con taskset -c y la misma lista.
+ */
+public final class ParallelRuntime {
+
+    private static final int[] CPUS = parseCpus(System.getProperty("parallel.cpus"));
+    private static final int WORKERS = readWorkers();
+    private static final ForkJoinPool POOL = createPool();
+
+    private ParallelRuntime() {
+    }
+
+    /**
+     * Cuerpo de un bucle paralelo sobre el rango [start, end)
+     */
+    @FunctionalInterface
+    public interface Range {
+        void run(int start, int end);
+    }
+
+    /**
+     * Resultado parcial de una reducción sobre el rango [start, end)
+     */
+    @FunctionalInterface
+    public interface RangeReducer<T> {
+        T apply(int start, int end);
+    }
+
+    /**
+     * Número de hilos del pool
+     */
+    public static int workers() {
+        return WORKERS;
+    }
+
+    /**
+     * CPU sugeridas (vacío si no se configuró parallel.cpus)
+     */
+    public static int[] cpus() {
+        return CPUS.clone();
+    }
+
+    /**
+     * Pool compartido, para algoritmos con sus propias tareas ForkJoin
+     */
+    public static ForkJoinPool pool() {
+        return POOL;
+    }
+
+    /**
+     * Ejecuta una tarea en el pool y espera su resultado. Desde un hilo del
+     * propio pool la tarea se ejecuta directamente (sus subtareas se roban)
+     */
+    public static <T> T invoke(ForkJoinTask<T> task) {
+        if (ForkJoinTask.inForkJoinPool() && ForkJoinTask.getPool() == POOL) {
+            return task.invoke();
+        }
+        return POOL.invoke(task);
+    }
+
+    /**
+     * body(i) para cada i de [start, end), una tarea por índice. Para
+     * cuerpos costosos o desiguales (p. ej. un Dijkstra por fuente)
+     */
+    public static void parallelFor(int start, int end, IntConsumer body) {
+        parallelFor(start, end, 1, (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+                body.accept(i);
+            }
+        });
+    }
+
+    /**
+     * body sobre tramos de como mucho grain índices de [start, end)
+     */
+    public static void parallelFor(int start, int end, int grain, Range body) {
+        if (end <= start) {
+            return;
+        }
+        if (end - start <= grain || WORKERS == 1) {
+            body.run(start, end);
+            return;
+        }
+        if (Metrics.enabled() && ForkJoinTask.getPool() != POOL) {
+            measuredFor(start, end, Math.max(1, grain), body);
+            return;
+        }
+        invoke(new ForTask(start, end, Math.max(1, grain), body));
+    }
+
+    /**
+     * parallelFor con métricas: tiempo ocupado de cada hilo y, al final, la
+     * espera en la barrera (hilos x tiempo de pared - tiempo ocupado). Solo
+     * en las llamadas externas al pool, para no contar dos veces los bucles
+     * anidados
+     */
+    private static void measuredFor(int start, int end, int grain, Range body) {
+        LongAdder busy = new LongAdder();
+        long begin = System.nanoTime();
+        POOL.invoke(new ForTask(start, end, grain, (lo, hi) -> {
+            long t = System.nanoTime();
+            body.run(lo, hi);
+            long elapsed = System.nanoTime() - t;
+            busy.add(elapsed);
+            Metrics.busy(elapsed);
+        }));
+        long wall = System.nanoTime() - begin;
+        long threads = Math.min(WORKERS, (end - start + (long) grain - 1) / grain);
+        Metrics.record(Metrics.Phase.BARRIER_WAIT, Math.max(0, threads * wall - busy.sum()));
+    }
+
+    /**
+     * body sobre [start, end) con un tamaño de tramo elegido según los hilos
+     * (unos 4 tramos por hilo para repartir desequilibrios)
+     */
+    public static void parallelFor(int start, int end, Range body) {
+        parallelFor(start, end, defaultGrain(end - start), body);
+    }
+
+    /**
+     * Reduce [start, end): leaf calcula cada tramo de como mucho grain índices
+     * y combine junta dos resultados parciales (en orden de índices)
+     */
+    public static <T> T reduce(int start, int end, int grain, RangeReducer<T> leaf, BinaryOperator<T> combine) {
+        if (end - start <= grain || WORKERS == 1) {
+            return leaf.apply(start, end);
+        }
+        return invoke(new ReduceTask<>(start, end, Math.max(1, grain), leaf, combine));
+    }
+
+    /**
+     * Reducción con el tamaño de tramo por defecto
+     */
+    public static <T> T reduce(int start, int end, RangeReducer<T> leaf, BinaryOperator<T> combine) {
+        return reduce(start, end, defaultGrain(end - start), leaf, combine);
+    }
+
+    /**
+     * Ejecuta los trabajos en el pool y espera a que terminen todos. Los
+     * errores de un trabajo se propagan al llamador
+     */
+    public static void runAll(Collection<? extends Runnable> jobs) {
+        List<Runnable> list = new ArrayList<>(jobs);
+        parallelFor(0, list.size(), i -> list.get(i).run());
+    }
+
+    static int defaultGrain(int length) {
+        return Math.max(1, (length + 4 * WORKERS - 1) / (4 * WORKERS));
+    }
+
+    private static final class ForTask extends RecursiveAction {
+        private final int start, end, grain;
+        private final Range body;
+
+        ForTask(int start, int end, int grain, Range body) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= grain) {
+                body.run(start, end);
+                return;
+            }
+            int mid = (start + end) >>> 1;
+            invokeAll(new ForTask(start, mid, grain, body), new ForTask(mid, end, grain, body));
+        }
+    }
+
+    private static final class ReduceTask<T> extends RecursiveTask<T> {
+        private final int start, end, grain;
+        private final RangeReducer<T> leaf;
+        private final BinaryOperator<T> combine;
+
+        ReduceTask(int start, int end, int grain, RangeReducer<T> leaf, BinaryOperator<T> combine) {
+            this.start = start;
+            this.end = end;
+            this.grain = grain;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected T compute() {
+            if (end - start <= grain) {
+                return leaf.apply(start, end);
+            }
+            int mid = (start + end) >>> 1;
+            ReduceTask<T> right = new ReduceTask<>(mid, end, grain, leaf, combine);
+            right.fork();
+            T left = new ReduceTask<>(start, mid, grain, leaf, combine).compute();
+            return combine.apply(left, right.join());
+        }
+    }
+
+    private static int readWorkers() {
+        String value = System.getProperty("parallel.workers");
+        if (value != null) {
+            try {
+                int workers = Integer.parseInt(value.trim());
+                if (workers > 0) {
+                    return workers;
+                }
+            } catch (NumberFormatException e) {
+                // se usa el valor por defecto
+            }
+            System.err.println("parallel.workers inválido (" + value + "); se usa el valor por defecto");
+        }
+        return CPUS.length > 0 ? CPUS.length : Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ForkJoinPool createPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return new ForkJoinPool(WORKERS, pool -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            int index = counter.getAndIncrement();
+            String name = "parallel-worker-" + index;
+            if (CPUS.length > 0) {
+                name += "@cpu" + CPUS[index % CPUS.length];
+            }
+            t.setName(name);
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    /**
+     * "0-3,8,10-11" -> {0, 1, 2, 3, 8, 10, 11}
+     */
+    static int[] parseCpus(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return new int[0];
+        }
+        List<Integer> cpus = new ArrayList<>();
+        try {
+            for (String part : spec.split(",")) {
+                String[] bounds = part.trim().split("-");
+                int from = Integer.parseInt(bounds[0].trim());
+                int to = bounds.length > 1 ? Integer.parseInt(bounds[1].trim()) : from;
+                for (int c = from; c <= to; c++) {
+                    cpus.add(c);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("parallel.cpus inválido (" + spec + "); se ignora");
+            return new int[0];
+        }
+        return cpus.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
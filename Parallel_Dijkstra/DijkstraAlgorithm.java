@@ -1,5 +1,11 @@
 package Parallel_Dijkstra;
 
+import java.util.function.IntFunction;
+
+import Parallel_Common.DenseMatrix;
+import Parallel_Common.Metrics;
+import Parallel_Common.ParallelRuntime;
+
 public class DijkstraAlgorithm {
     // Definición de "infinito" (se usa para inicializar distancias)
     private static final int INF = 1000000000;
@@ -48,6 +54,58 @@ public class DijkstraAlgorithm {
         return dist;
     }
 
+    /**
+     * Dijkstra para fuente única sobre una DenseMatrix de pesos (valores
+     * enteros guardados como double). Si la matriz está en el heap se lee sin
+     * copias; si no, se copia una fila por cada vértice visitado.
+     */
+    public static int[] dijkstra(DenseMatrix grafo, int src) {
+        int n = grafo.rows();
+        int[] dist = new int[n];
+        boolean[] visitado = new boolean[n];
+        double[] fila = grafo.isHeap() ? null : new double[n];
+
+        for (int i = 0; i < n; i++) {
+            dist[i] = INF;
+        }
+        dist[src] = 0;
+
+        for (int count = 0; count < n - 1; count++) {
+            int u = -1;
+            int minDist = INF;
+            for (int i = 0; i < n; i++) {
+                if (!visitado[i] && dist[i] < minDist) {
+                    minDist = dist[i];
+                    u = i;
+                }
+            }
+
+            if (u == -1) {
+                break;
+            }
+            visitado[u] = true;
+
+            // Pesos de la fila u: directamente del arreglo o de la copia
+            double[] pesos;
+            int base;
+            if (fila == null) {
+                pesos = grafo.array();
+                base = (int) (grafo.offset() + u * grafo.stride());
+            } else {
+                grafo.getRow(u, fila, 0);
+                pesos = fila;
+                base = 0;
+            }
+            for (int v = 0; v < n; v++) {
+                int candidato = dist[u] + (int) pesos[base + v];
+                if (!visitado[v] && candidato < dist[v]) {
+                    dist[v] = candidato;
+                }
+            }
+        }
+        return dist;
+    }
+
     /**
      * Función que ejecuta Dijkstra para cada nodo como fuente (all-pairs)
      * de forma secuencial.
@@ -65,36 +123,48 @@ public class DijkstraAlgorithm {
 
     /**
      * Función que ejecuta Dijkstra para cada nodo como fuente (all-pairs)
-     * de forma paralela. Se utiliza un arreglo de hilos para distribuir el cómputo.
+     * de forma paralela sobre el pool compartido de ParallelRuntime.
      */
     public static int[][] dijkstraAllPairsParalelo(final int[][] grafo) {
-        final int n = grafo.length;
-        final int[][] matrizResultado = new int[n][];
-        // Número de hilos a utilizar (por ejemplo, los núcleos disponibles)
-        final int numHilos = Runtime.getRuntime().availableProcessors();
-        Thread[] hilos = new Thread[numHilos];
-        // Dividir las fuentes entre los hilos (división por bloques)
-        final int fuentesPorHilo = (n + numHilos - 1) / numHilos; // división entera hacia arriba
-
-        for (int t = 0; t < numHilos; t++) {
-            final int inicio = t * fuentesPorHilo;
-            // Aseguramos que no sobrepase el número de nodos
-            final int fin = Math.min(n, inicio + fuentesPorHilo);
-            hilos[t] = new Thread(() -> {
-                for (int src = inicio; src < fin; src++) {
-                    matrizResultado[src] = dijkstra(grafo, src);
-                }
-            });
-            hilos[t].start();
+        return todosLosParesParalelo(grafo.length, src -> dijkstra(grafo, src));
+    }
+
+    /**
+     * Versiones all-pairs sobre una DenseMatrix de pesos (cuadrada)
+     */
+    public static int[][] dijkstraAllPairsSerial(DenseMatrix grafo) {
+        int n = nodos(grafo);
+        int[][] matrizResultado = new int[n][];
+        for (int src = 0; src < n; src++) {
+            matrizResultado[src] = dijkstra(grafo, src);
         }
-        // Esperar a que todos los hilos terminen
-        for (int t = 0; t < numHilos; t++) {
-            try {
-                hilos[t].join();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        return matrizResultado;
+    }
+
+    public static int[][] dijkstraAllPairsParalelo(DenseMatrix grafo) {
+        return todosLosParesParalelo(nodos(grafo), src -> dijkstra(grafo, src));
+    }
+
+    private static int nodos(DenseMatrix grafo) {
+        if (grafo.rows() != grafo.cols()) {
+            throw new IllegalArgumentException("La matriz de adyacencia debe ser cuadrada: "
+                                               + grafo.rows() + "x" + grafo.cols());
         }
+        return grafo.rows();
+    }
+
+    /**
+     * Reparte las n fuentes entre los hilos de ParallelRuntime, una tarea por
+     * fuente (los hilos que terminan antes roban fuentes pendientes);
+     * desdeFuente calcula la fila de distancias de una fuente.
+     */
+    private static int[][] todosLosParesParalelo(final int n, final IntFunction<int[]> desdeFuente) {
+        final int[][] matrizResultado = new int[n][];
+        ParallelRuntime.parallelFor(0, n, src -> {
+            long t = Metrics.start();
+            matrizResultado[src] = desdeFuente.apply(src);
+            Metrics.end(Metrics.Phase.DIJKSTRA_SOURCE, t);
+        });
         return matrizResultado;
     }
 }
\ No newline at end of file
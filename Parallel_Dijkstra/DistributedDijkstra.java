@@ -0,0 +1,609 @@
+package Parallel_Dijkstra;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Parallel_Common.DenseMatrix;
+import Parallel_Common.ParallelRuntime;
+
+/**
+ * Dijkstra all-pairs repartido entre varios procesos (JVM) sobre sockets.
+ *
+ * El grafo es un archivo de doubles por filas (el formato de
+ * DenseMatrix.mapped) que cada trabajador mapea en memoria, así que no pasa
+ * por el heap ni por la red. El coordinador reparte las fuentes en tramos
+ * de tamaño decreciente (el resto sin asignar entre 4 veces los
+ * trabajadores, con un mínimo de --chunk); cada trabajador pide otro tramo
+ * al terminar el anterior y resuelve sus fuentes en paralelo con sus hilos
+ * de ParallelRuntime. Si un trabajador se desconecta o muere, sus tramos
+ * sin terminar vuelven a la cola y los recoge otro.
+ *
+ * Las filas de distancias vuelven al coordinador por el socket (en memoria
+ * o en --out), o cada trabajador las escribe en su propio --out y solo
+ * confirma el tramo. Los archivos de resultados son n x n enteros de 32 bits
+ * (big-endian), con la fila de la fuente s en la posición s * n * 4.
+ *
+ * Protocolo (DataInput/DataOutput):
+ *   trabajador -> coordinador: HOLA(nombre, hilos), FILA(fuente, n enteros),
+ *                              TRAMO_HECHO(inicio, fin)
+ *   coordinador -> trabajador: GRAFO(ruta, n), TRAMO(inicio, fin), FIN
+ *
+ * Uso:
+ *   coordinator --graph g.bin --nodes N [--generate] [--port P] [--chunk C]
+ *               [--out dist.bin] [--local W] [--local-fail-after K] [--verify]
+ *   worker --host H --port P [--graph g.bin] [--out filas.bin] [--fail-after K]
+ * Con --local W el coordinador lanza W JVM trabajadoras en la misma máquina;
+ * --local-fail-after K hace que la primera muera tras K filas (prueba de
+ * reasignación). --graph en el trabajador sustituye a la ruta del
+ * coordinador (p. ej. una copia local en otra máquina).
+ * --verify compara con la versión secuencial solo las filas que volvieron
+ * al coordinador; las de trabajadores con --out se verifican aparte.
+ */
+public class DistributedDijkstra {
+
+    // Mensajes del protocolo
+    static final byte HOLA = 1;
+    static final byte FILA = 2;
+    static final byte TRAMO_HECHO = 3;
+    static final byte GRAFO = 10;
+    static final byte TRAMO = 11;
+    static final byte FIN = 12;
+
+    static final int PUERTO_DEFECTO = 5077;
+    static final int TRAMO_MINIMO = 16;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Uso: DistributedDijkstra coordinator|worker [opciones]");
+            System.exit(2);
+        }
+        Opciones o = new Opciones(args);
+        if (args[0].equals("coordinator")) {
+            coordinar(o);
+        } else if (args[0].equals("worker")) {
+            trabajar(o);
+        } else {
+            throw new IllegalArgumentException("Modo desconocido: " + args[0]);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Coordinador
+
+    static void coordinar(Opciones o) throws Exception {
+        String ruta = o.texto("--graph", null);
+        int n = o.entero("--nodes", -1);
+        if (ruta == null || n <= 0) {
+            throw new IllegalArgumentException("El coordinador necesita --graph y --nodes");
+        }
+        Path grafo = Paths.get(ruta);
+        if (o.tiene("--generate")) {
+            generarGrafo(grafo, n, 42);
+            System.out.println("Grafo aleatorio de " + n + " nodos escrito en " + grafo);
+        }
+
+        Resultados resultados = new Resultados(n, o.texto("--out", null));
+        Reparto reparto = new Reparto(n, o.entero("--chunk", TRAMO_MINIMO));
+        List<Process> locales = new ArrayList<>();
+        List<Thread> atendiendo = new ArrayList<>();
+
+        try (ServerSocket servidor = new ServerSocket(o.entero("--port", PUERTO_DEFECTO))) {
+            int puerto = servidor.getLocalPort();
+            System.out.println("Coordinador escuchando en el puerto " + puerto + " (" + n + " fuentes)");
+
+            long inicio = System.nanoTime();
+            int numLocales = o.entero("--local", 0);
+            for (int w = 0; w < numLocales; w++) {
+                int falloTras = w == 0 ? o.entero("--local-fail-after", -1) : -1;
+                locales.add(lanzarTrabajador(puerto, falloTras));
+            }
+
+            Thread aceptador = new Thread(() -> {
+                while (!servidor.isClosed()) {
+                    try {
+                        Socket socket = servidor.accept();
+                        Thread t = new Thread(() -> atender(socket, grafo, n, reparto, resultados),
+                                              "coordinador-" + socket.getRemoteSocketAddress());
+                        t.setDaemon(true);
+                        synchronized (atendiendo) {
+                            atendiendo.add(t);
+                        }
+                        t.start();
+                    } catch (IOException e) {
+                        // servidor cerrado
+                    }
+                }
+            }, "coordinador-accept");
+            aceptador.setDaemon(true);
+            aceptador.start();
+
+            reparto.esperarFin(locales);
+            long fin = System.nanoTime();
+            System.out.printf("Todas las fuentes resueltas en %.2f s (%d tramos, %d reasignados)%n",
+                              (fin - inicio) / 1e9, reparto.tramosAsignados, reparto.tramosReasignados);
+
+            // Los trabajadores reciben FIN al pedir el siguiente tramo
+            List<Thread> hilos;
+            synchronized (atendiendo) {
+                hilos = new ArrayList<>(atendiendo);
+            }
+            for (Thread t : hilos) {
+                t.join(5000);
+            }
+        } finally {
+            for (Process p : locales) {
+                if (!p.waitFor(5, TimeUnit.SECONDS)) {
+                    p.destroyForcibly();
+                }
+            }
+        }
+
+        try {
+            if (o.tiene("--verify")) {
+                verificar(grafo, n, resultados);
+            }
+        } finally {
+            resultados.cerrar();
+        }
+    }
+
+    /**
+     * Compara con la versión secuencial las filas que volvieron por el
+     * socket. Las que los trabajadores escribieron en su propio --out no
+     * pasan por el coordinador y no se pueden verificar aquí
+     */
+    static void verificar(Path grafo, int n, Resultados resultados) throws IOException {
+        BitSet recibidas = resultados.recibidas();
+        int total = recibidas.cardinality();
+        if (total == 0) {
+            System.out.println("No se puede verificar: ninguna fila volvió al coordinador "
+                               + "(los trabajadores las escribieron en su --out)");
+            return;
+        }
+        if (total < n) {
+            System.out.println("Solo " + total + " de " + n + " filas volvieron al coordinador; "
+                               + "el resto está en el --out de los trabajadores y no se verifica");
+        }
+        System.out.println("Verificando con la versión secuencial...");
+        DenseMatrix g = DenseMatrix.mapped(grafo, n, n, false);
+        boolean iguales = true;
+        int[] fila = new int[n];
+        for (int src = recibidas.nextSetBit(0); src >= 0 && iguales; src = recibidas.nextSetBit(src + 1)) {
+            resultados.leerFila(src, fila);
+            iguales = Arrays.equals(fila, DijkstraAlgorithm.dijkstra(g, src));
+        }
+        System.out.println("¿Resultados iguales a la versión secuencial? " + iguales
+                           + " (" + total + " filas)");
+    }
+
+    /**
+     * Atiende a un trabajador: le envía el grafo, le asigna tramos mientras
+     * queden y recoge sus filas. Si la conexión falla, su tramo vuelve a la cola
+     */
+    static void atender(Socket socket, Path grafo, int n, Reparto reparto, Resultados resultados) {
+        String nombre = socket.getRemoteSocketAddress().toString();
+        int[] tramo = null;
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            if (in.readByte() != HOLA) {
+                throw new IOException("Se esperaba HOLA");
+            }
+            nombre = in.readUTF();
+            int hilos = in.readInt();
+            System.out.println("  + trabajador " + nombre + " (" + hilos + " hilos)");
+            reparto.conectar();
+
+            out.writeByte(GRAFO);
+            out.writeUTF(grafo.toAbsolutePath().toString());
+            out.writeInt(n);
+            out.flush();
+
+            int[] fila = new int[n];
+            byte[] bytes = new byte[n * Integer.BYTES];
+            while ((tramo = reparto.siguiente()) != null) {
+                out.writeByte(TRAMO);
+                out.writeInt(tramo[0]);
+                out.writeInt(tramo[1]);
+                out.flush();
+
+                // Filas del tramo hasta la confirmación
+                while (true) {
+                    byte tipo = in.readByte();
+                    if (tipo == FILA) {
+                        int src = in.readInt();
+                        in.readFully(bytes);
+                        ByteBuffer.wrap(bytes).asIntBuffer().get(fila);
+                        resultados.guardar(src, fila);
+                    } else if (tipo == TRAMO_HECHO) {
+                        int inicio = in.readInt();
+                        int fin = in.readInt();
+                        if (inicio != tramo[0] || fin != tramo[1]) {
+                            throw new IOException("Confirmación de un tramo no asignado: [" + inicio + ", " + fin + ")");
+                        }
+                        reparto.completar(tramo);
+                        tramo = null;
+                        break;
+                    } else {
+                        throw new IOException("Mensaje desconocido: " + tipo);
+                    }
+                }
+            }
+            out.writeByte(FIN);
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("  - trabajador " + nombre + " perdido: " + e);
+        } finally {
+            reparto.desconectar(tramo);
+        }
+    }
+
+    /**
+     * Estado compartido del reparto de fuentes entre trabajadores
+     */
+    static final class Reparto {
+        private final int n;
+        private final int tramoMinimo;
+        private final Deque<int[]> pendientes = new ArrayDeque<>();
+        private final BitSet hechas;
+        private int siguienteFuente;
+        private int conectados;
+        int tramosAsignados;
+        int tramosReasignados;
+
+        Reparto(int n, int tramoMinimo) {
+            this.n = n;
+            this.tramoMinimo = Math.max(1, tramoMinimo);
+            this.hechas = new BitSet(n);
+        }
+
+        synchronized void conectar() {
+            conectados++;
+        }
+
+        /**
+         * Baja de un trabajador; su tramo sin confirmar vuelve a la cola
+         */
+        synchronized void desconectar(int[] tramo) {
+            conectados = Math.max(0, conectados - 1);
+            if (tramo != null) {
+                pendientes.addFirst(tramo);
+                tramosReasignados++;
+            }
+            notifyAll();
+        }
+
+        /**
+         * Siguiente tramo [inicio, fin) o null si todas las fuentes están
+         * resueltas. Si no queda nada por asignar pero hay tramos en curso,
+         * espera por si alguno se reasigna
+         */
+        synchronized int[] siguiente() {
+            while (true) {
+                if (hechas.cardinality() == n) {
+                    return null;
+                }
+                if (!pendientes.isEmpty()) {
+                    tramosAsignados++;
+                    return pendientes.pollFirst();
+                }
+                if (siguienteFuente < n) {
+                    int restantes = n - siguienteFuente;
+                    int tamano = Math.max(tramoMinimo, restantes / (4 * Math.max(1, conectados)));
+                    int[] tramo = {siguienteFuente, Math.min(n, siguienteFuente + tamano)};
+                    siguienteFuente = tramo[1];
+                    tramosAsignados++;
+                    return tramo;
+                }
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+
+        synchronized void completar(int[] tramo) {
+            hechas.set(tramo[0], tramo[1]);
+            notifyAll();
+        }
+
+        /**
+         * Espera a que estén todas las fuentes. Falla si todos los
+         * trabajadores locales han terminado sin completar el trabajo
+         */
+        synchronized void esperarFin(List<Process> locales) throws InterruptedException {
+            while (hechas.cardinality() < n) {
+                wait(1000);
+                if (!locales.isEmpty() && conectados == 0 && locales.stream().noneMatch(Process::isAlive)
+                        && hechas.cardinality() < n) {
+                    throw new IllegalStateException("Todos los trabajadores locales terminaron con "
+                                                    + (n - hechas.cardinality()) + " fuentes pendientes");
+                }
+            }
+        }
+    }
+
+    /**
+     * Filas recibidas: en memoria o en un archivo de n x n enteros. Anota qué
+     * fuentes llegaron por el socket para no leer filas que no están
+     */
+    static final class Resultados {
+        private final int n;
+        private final int[][] memoria;
+        private final FileChannel archivo;
+        private final BitSet recibidas;
+
+        Resultados(int n, String ruta) throws IOException {
+            this.n = n;
+            this.recibidas = new BitSet(n);
+            if (ruta == null) {
+                memoria = new int[n][];
+                archivo = null;
+            } else {
+                memoria = null;
+                archivo = abrirFilas(Paths.get(ruta));
+            }
+        }
+
+        void guardar(int src, int[] fila) throws IOException {
+            if (memoria != null) {
+                memoria[src] = fila.clone();
+            } else {
+                escribirFila(archivo, src, fila);
+            }
+            synchronized (recibidas) {
+                recibidas.set(src);
+            }
+        }
+
+        BitSet recibidas() {
+            synchronized (recibidas) {
+                return (BitSet) recibidas.clone();
+            }
+        }
+
+        void leerFila(int src, int[] fila) throws IOException {
+            if (memoria != null) {
+                System.arraycopy(memoria[src], 0, fila, 0, n);
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(n * Integer.BYTES);
+            long posicion = (long) src * n * Integer.BYTES;
+            while (buffer.hasRemaining()) {
+                if (archivo.read(buffer, posicion + buffer.position()) < 0) {
+                    throw new EOFException("Fila " + src + " incompleta");
+                }
+            }
+            buffer.flip();
+            buffer.asIntBuffer().get(fila);
+        }
+
+        void cerrar() throws IOException {
+            if (archivo != null) {
+                archivo.close();
+            }
+        }
+    }
+
+    static FileChannel abrirFilas(Path ruta) throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    /**
+     * Escritura posicional: varios hilos pueden escribir filas distintas a la vez
+     */
+    static void escribirFila(FileChannel archivo, int src, int[] fila) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fila.length * Integer.BYTES);
+        buffer.asIntBuffer().put(fila);
+        long posicion = (long) src * fila.length * Integer.BYTES;
+        while (buffer.hasRemaining()) {
+            archivo.write(buffer, posicion + buffer.position());
+        }
+    }
+
+    /**
+     * Lanza una JVM trabajadora con las mismas opciones y classpath
+     */
+    static Process lanzarTrabajador(int puerto, int falloTras) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String opcion : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!opcion.startsWith("-agentlib") && !opcion.startsWith("-XX:StartFlightRecording")) {
+                comando.add(opcion);
+            }
+        }
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(DistributedDijkstra.class.getName());
+        comando.add("worker");
+        comando.add("--host");
+        comando.add("localhost");
+        comando.add("--port");
+        comando.add(Integer.toString(puerto));
+        if (falloTras >= 0) {
+            comando.add("--fail-after");
+            comando.add(Integer.toString(falloTras));
+        }
+        return new ProcessBuilder(comando).inheritIO().start();
+    }
+
+    // ------------------------------------------------------------------
+    // Trabajador
+
+    static void trabajar(Opciones o) throws Exception {
+        String host = o.texto("--host", "localhost");
+        int puerto = o.entero("--port", PUERTO_DEFECTO);
+        String grafoLocal = o.texto("--graph", null);
+        String salida = o.texto("--out", null);
+        int falloTras = o.entero("--fail-after", -1);
+        String nombre = InetAddress.getLocalHost().getHostName() + "/" + ProcessHandle.current().pid();
+
+        try (Socket socket = conectar(host, puerto);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeByte(HOLA);
+            out.writeUTF(nombre);
+            out.writeInt(ParallelRuntime.workers());
+            out.flush();
+
+            if (in.readByte() != GRAFO) {
+                throw new IOException("Se esperaba GRAFO");
+            }
+            String ruta = in.readUTF();
+            int n = in.readInt();
+            DenseMatrix grafo = DenseMatrix.mapped(Paths.get(grafoLocal != null ? grafoLocal : ruta), n, n, false);
+            FileChannel archivo = salida != null ? abrirFilas(Paths.get(salida)) : null;
+            AtomicInteger filasHechas = new AtomicInteger();
+
+            try {
+                while (true) {
+                    byte tipo = in.readByte();
+                    if (tipo == FIN) {
+                        break;
+                    }
+                    if (tipo != TRAMO) {
+                        throw new IOException("Mensaje desconocido: " + tipo);
+                    }
+                    int inicio = in.readInt();
+                    int fin = in.readInt();
+
+                    // Fuentes del tramo en paralelo; las filas salen en cuanto están
+                    ParallelRuntime.parallelFor(inicio, fin, src -> {
+                        int[] fila = DijkstraAlgorithm.dijkstra(grafo, src);
+                        try {
+                            if (archivo != null) {
+                                escribirFila(archivo, src, fila);
+                            } else {
+                                enviarFila(out, src, fila);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        if (filasHechas.incrementAndGet() == falloTras) {
+                            // Fallo simulado: termina sin cerrar la conexión ordenadamente
+                            Runtime.getRuntime().halt(3);
+                        }
+                    });
+
+                    synchronized (out) {
+                        out.writeByte(TRAMO_HECHO);
+                        out.writeInt(inicio);
+                        out.writeInt(fin);
+                        out.flush();
+                    }
+                }
+            } finally {
+                if (archivo != null) {
+                    archivo.close();
+                }
+            }
+            System.out.println("Trabajador " + nombre + ": " + filasHechas.get() + " fuentes resueltas");
+        }
+    }
+
+    static void enviarFila(DataOutputStream out, int src, int[] fila) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(fila.length * Integer.BYTES);
+        buffer.asIntBuffer().put(fila);
+        synchronized (out) {
+            out.writeByte(FILA);
+            out.writeInt(src);
+            out.write(buffer.array());
+            out.flush();
+        }
+    }
+
+    /**
+     * Conecta con el coordinador, reintentando mientras arranca
+     */
+    static Socket conectar(String host, int puerto) throws IOException, InterruptedException {
+        for (int intento = 0; ; intento++) {
+            try {
+                return new Socket(host, puerto);
+            } catch (ConnectException e) {
+                if (intento >= 50) {
+                    throw e;
+                }
+                Thread.sleep(200);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Utilidades
+
+    /**
+     * Escribe un grafo denso aleatorio (pesos 1..10, diagonal 0, como
+     * GraphUtils) fila a fila en un archivo mapeado
+     */
+    static void generarGrafo(Path ruta, int n, long semilla) throws IOException {
+        DenseMatrix grafo = DenseMatrix.mapped(ruta, n, n, true);
+        Random rnd = new Random(semilla);
+        double[] fila = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                fila[j] = i == j ? 0 : rnd.nextInt(10) + 1;
+            }
+            grafo.setRow(i, fila, 0);
+        }
+    }
+
+    /**
+     * Opciones "--clave valor" y banderas "--clave" a partir del segundo argumento
+     */
+    static final class Opciones {
+        private final String[] args;
+
+        Opciones(String[] args) {
+            this.args = args;
+        }
+
+        boolean tiene(String clave) {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals(clave)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String texto(String clave, String defecto) {
+            for (int i = 1; i < args.length - 1; i++) {
+                if (args[i].equals(clave)) {
+                    return args[i + 1];
+                }
+            }
+            return defecto;
+        }
+
+        int entero(String clave, int defecto) {
+            String valor = texto(clave, null);
+            return valor == null ? defecto : Integer.parseInt(valor);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package Parallel_Dijkstra;
 
 import java.util.Random;
 
+import Parallel_Common.Metrics;
+
 public class ParallelDijkstra {
 
     // Definición de "infinito" (se usa para inicializar distancias)
@@ -24,9 +26,11 @@ public class ParallelDijkstra {
 
         // Ejecutar la versión paralela para todos los nodos
         System.out.println("\nEjecutando algoritmo Dijkstra en paralelo (con hilos) para todos los nodos...");
+        Metrics.Region region = Metrics.region("Dijkstra paralelo");
         long inicioParalelo = System.nanoTime();
         int[][] resultadoParalelo = DijkstraAlgorithm.dijkstraAllPairsParalelo(grafo);
         long finParalelo = System.nanoTime();
+        region.close();
         long tiempoParaleloMs = (finParalelo - inicioParalelo) / 1000000;
         System.out.println("Tiempo paralelo (ms): " + tiempoParaleloMs);
 
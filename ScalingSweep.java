@@ -0,0 +1,506 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import Parallel_Dijkstra.DijkstraAlgorithm;
+import Parallel_Dijkstra.GraphUtils;
+import Parallel_Dijkstra.MatrixUtils;
+
+/**
+ * Barrido de escalabilidad fuerte y débil de los algoritmos del proyecto.
+ *
+ * Para cada algoritmo, tamaño y número de hilos p mide la versión serie y
+ * la paralela, comprueba que la paralela da el mismo resultado que la serie
+ * y calcula aceleración S = Ts / Tp, eficiencia E = S / p y la fracción
+ * serie de Karp-Flatt e = (1/S - 1/p) / (1 - 1/p). Los resultados se
+ * muestran como tabla y se guardan en CSV y/o JSON.
+ *
+ * El pool de ParallelRuntime tiene un tamaño fijo por proceso, así que cada
+ * p se mide en una JVM hija con -Dparallel.workers=p (con las mismas opciones
+ * de la JVM y el mismo classpath). La línea base serie se mide en la hija
+ * con p = 1; en las demás, la versión serie solo se ejecuta para comprobar.
+ * Antes de medir, cada versión medida se ejecuta una vez sin medir (JIT).
+ *
+ * Escalabilidad débil (--mode weak): el tamaño crece con p para mantener el
+ * trabajo por hilo (n * p^(1/3) en los algoritmos O(n^3), n * p en PSO) y la
+ * eficiencia es Ts(n) / Tp(n_p); Karp-Flatt no se aplica.
+ *
+ * Uso:
+ *   java ScalingSweep [--algorithms matmul,lu,dijkstra,pso] [--sizes 256,512]
+ *                     [--threads 1,2,4] [--mode strong|weak] [--reps 3]
+ *                     [--no-verify] [--csv ruta] [--json ruta]
+ */
+public class ScalingSweep {
+
+    static final String[] ALGORITHMS = {"matmul", "lu", "dijkstra", "pso"};
+    static final int DEFAULT_REPS = 3;
+    static final long SEED = 42;
+
+    // Tolerancia relativa de las comparaciones en coma flotante
+    static final double TOLERANCE = 1e-9;
+
+    /**
+     * Una fila del informe
+     */
+    static final class Row {
+        String algorithm;
+        String mode;
+        int size;
+        int threads;
+        double serialMs;
+        double parallelMs;
+        double speedup;
+        double efficiency;
+        double karpFlatt;
+        String verified;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runChild(args);
+            return;
+        }
+
+        List<String> algorithms = Arrays.asList(ALGORITHMS);
+        int[] sizes = null;
+        int[] threads = defaultThreads();
+        boolean weak = false;
+        int reps = DEFAULT_REPS;
+        boolean verify = true;
+        String csv = null;
+        String json = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--algorithms":
+                    algorithms = Arrays.asList(args[++i].split(","));
+                    break;
+                case "--sizes":
+                    sizes = parseList(args[++i]);
+                    break;
+                case "--threads":
+                    threads = parseList(args[++i]);
+                    break;
+                case "--mode":
+                    weak = args[++i].equals("weak");
+                    break;
+                case "--reps":
+                    reps = Integer.parseInt(args[++i]);
+                    break;
+                case "--no-verify":
+                    verify = false;
+                    break;
+                case "--csv":
+                    csv = args[++i];
+                    break;
+                case "--json":
+                    json = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+
+        System.out.println("Barrido de escalabilidad " + (weak ? "débil" : "fuerte")
+                           + " (" + Runtime.getRuntime().availableProcessors() + " procesadores, hilos "
+                           + Arrays.toString(threads) + ", " + reps + " repeticiones)");
+        System.out.printf("%-9s %7s %5s %12s %12s %8s %8s %8s  %s%n",
+                          "algoritmo", "tamaño", "hilos", "serie ms", "paralelo ms", "S", "E", "e", "verificado");
+
+        List<Row> rows = new ArrayList<>();
+        for (String algorithm : algorithms) {
+            for (int base : sizes != null ? sizes : defaultSizes(algorithm)) {
+                // Línea base serie: tamaño base con un hilo
+                double[] baseline = measure(algorithm, base, 1, reps, true, verify);
+                double serialMs = baseline[0];
+                for (int p : threads) {
+                    int size = weak ? weakSize(algorithm, base, p) : base;
+                    double[] result = p == 1 && size == base ? baseline : measure(algorithm, size, p, reps, false, verify);
+                    Row row = new Row();
+                    row.algorithm = algorithm;
+                    row.mode = weak ? "weak" : "strong";
+                    row.size = size;
+                    row.threads = p;
+                    row.serialMs = serialMs;
+                    row.parallelMs = result[1];
+                    row.verified = result[2] > 0 ? "true" : result[2] < 0 ? "false" : "skipped";
+                    if (weak) {
+                        row.efficiency = serialMs / row.parallelMs;
+                        row.speedup = p * row.efficiency;
+                        row.karpFlatt = Double.NaN;
+                    } else {
+                        row.speedup = serialMs / row.parallelMs;
+                        row.efficiency = row.speedup / p;
+                        row.karpFlatt = karpFlatt(row.speedup, p);
+                    }
+                    rows.add(row);
+                    System.out.printf(Locale.ROOT, "%-9s %7d %5d %12.2f %12.2f %8.2f %8.2f %8s  %s%n",
+                                      algorithm, size, p, row.serialMs, row.parallelMs, row.speedup,
+                                      row.efficiency, format(row.karpFlatt), row.verified);
+                }
+            }
+        }
+
+        if (csv != null) {
+            writeCsv(csv, rows);
+            System.out.println("CSV guardado en " + csv);
+        }
+        if (json != null) {
+            writeJson(json, rows, weak, reps);
+            System.out.println("JSON guardado en " + json);
+        }
+    }
+
+    /**
+     * Fracción serie de Karp-Flatt (no definida para p = 1)
+     */
+    static double karpFlatt(double speedup, int p) {
+        if (p <= 1) {
+            return Double.NaN;
+        }
+        return (1 / speedup - 1.0 / p) / (1 - 1.0 / p);
+    }
+
+    /**
+     * Tamaño con el mismo trabajo por hilo que base con un hilo
+     */
+    static int weakSize(String algorithm, int base, int p) {
+        if (algorithm.equals("pso")) {
+            return base * p;
+        }
+        return (int) Math.round(base * Math.cbrt(p));
+    }
+
+    static int[] defaultSizes(String algorithm) {
+        switch (algorithm) {
+            case "matmul":
+                return new int[]{256, 512, 1024};
+            case "lu":
+                return new int[]{500, 1000};
+            case "dijkstra":
+                return new int[]{500, 1000};
+            case "pso":
+                return new int[]{500, 1000};
+            default:
+                throw new IllegalArgumentException("Algoritmo desconocido: " + algorithm);
+        }
+    }
+
+    /**
+     * 1, 2, 4, ... hasta los procesadores disponibles (al menos 1 y 2)
+     */
+    static int[] defaultThreads() {
+        int cores = Math.max(2, Runtime.getRuntime().availableProcessors());
+        List<Integer> threads = new ArrayList<>();
+        for (int p = 1; p < cores; p *= 2) {
+            threads.add(p);
+        }
+        threads.add(cores);
+        return threads.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // ------------------------------------------------------------------
+    // Medidas en JVM hijas
+
+    /**
+     * Lanza una JVM hija con p hilos y devuelve {serie ms, paralelo ms, verificado}
+     * (verificado: 1 correcto, -1 incorrecto, 0 sin comprobar)
+     */
+    static double[] measure(String algorithm, int size, int p, int reps, boolean baseline, boolean verify)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!option.startsWith("-Dparallel.workers") && !option.startsWith("-agentlib")
+                    && !option.startsWith("-XX:StartFlightRecording")) {
+                command.add(option);
+            }
+        }
+        command.add("-Dparallel.workers=" + p);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("ScalingSweep");
+        command.add("--child");
+        command.add(algorithm);
+        command.add(Integer.toString(size));
+        command.add(Integer.toString(reps));
+        command.add(Boolean.toString(baseline));
+        command.add(Boolean.toString(verify));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        double[] result = null;
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("RESULT ")) {
+                    String[] parts = line.split(" ");
+                    result = new double[]{Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                                          Double.parseDouble(parts[3])};
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || result == null) {
+            throw new IllegalStateException("La medida de " + algorithm + " n=" + size + " p=" + p
+                                            + " terminó con código " + exit);
+        }
+        return result;
+    }
+
+    /**
+     * Medida dentro de la JVM hija: args = --child algoritmo tamaño reps baseline verify
+     */
+    static void runChild(String[] args) throws Exception {
+        String algorithm = args[1];
+        int size = Integer.parseInt(args[2]);
+        int reps = Integer.parseInt(args[3]);
+        boolean baseline = Boolean.parseBoolean(args[4]);
+        boolean verify = Boolean.parseBoolean(args[5]);
+
+        Workload w = workload(algorithm, size);
+
+        // Calentamiento del JIT: una ejecución sin medir de cada versión medida
+        if (baseline) {
+            w.reset();
+            w.serial();
+        }
+        w.reset();
+        w.parallel();
+
+        Object expected = null;
+        double serialMs = Double.NaN;
+        if (baseline) {
+            double[] times = new double[reps];
+            for (int r = 0; r < reps; r++) {
+                w.reset();
+                long start = System.nanoTime();
+                expected = w.serial();
+                times[r] = (System.nanoTime() - start) / 1e6;
+            }
+            serialMs = median(times);
+        } else if (verify) {
+            w.reset();
+            expected = w.serial();
+        }
+
+        double[] times = new double[reps];
+        Object actual = null;
+        for (int r = 0; r < reps; r++) {
+            w.reset();
+            long start = System.nanoTime();
+            actual = w.parallel();
+            times[r] = (System.nanoTime() - start) / 1e6;
+        }
+        int verified = !verify ? 0 : w.same(expected, actual) ? 1 : -1;
+        System.out.println("RESULT " + serialMs + " " + median(times) + " " + verified);
+    }
+
+    static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int m = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[m] : (sorted[m - 1] + sorted[m]) / 2;
+    }
+
+    // ------------------------------------------------------------------
+    // Cargas: versión serie, versión paralela y comparación de resultados
+
+    private abstract static class Workload {
+        /**
+         * Restaura las entradas que modifica la ejecución (fuera del tiempo medido)
+         */
+        void reset() {
+        }
+
+        abstract Object serial();
+
+        abstract Object parallel();
+
+        abstract boolean same(Object expected, Object actual);
+    }
+
+    static Workload workload(String algorithm, int n) {
+        Random rand = new Random(SEED);
+        switch (algorithm) {
+            case "matmul": {
+                double[][] A = randomMatrix(rand, n);
+                double[][] B = randomMatrix(rand, n);
+                return new Workload() {
+                    Object serial() {
+                        return CoppersmithWinogradMatrixMultiplication.multiplySequentialViews(A, B);
+                    }
+
+                    Object parallel() {
+                        return CoppersmithWinogradMatrixMultiplication.multiplyParallel(A, B);
+                    }
+
+                    boolean same(Object expected, Object actual) {
+                        double[][] x = (double[][]) expected, y = (double[][]) actual;
+                        double maxDiff = 0, scale = 1;
+                        for (int i = 0; i < n; i++) {
+                            for (int j = 0; j < n; j++) {
+                                maxDiff = Math.max(maxDiff, Math.abs(x[i][j] - y[i][j]));
+                                scale = Math.max(scale, Math.abs(x[i][j]));
+                            }
+                        }
+                        return maxDiff <= TOLERANCE * scale;
+                    }
+                };
+            }
+            case "lu": {
+                double[] original = new double[n * n];
+                for (int i = 0; i < original.length; i++) {
+                    original[i] = rand.nextDouble() * 10;
+                }
+                double[] a = new double[n * n];
+                int[] piv = new int[n];
+                return new Workload() {
+                    void reset() {
+                        System.arraycopy(original, 0, a, 0, a.length);
+                    }
+
+                    Object serial() {
+                        LUParallelSolver.luEnSitio(a, n, piv);
+                        return new Object[]{a.clone(), piv.clone()};
+                    }
+
+                    Object parallel() {
+                        LUParallelSolver.luEnSitioParalelo(a, n, piv);
+                        return new Object[]{a.clone(), piv.clone()};
+                    }
+
+                    boolean same(Object expected, Object actual) {
+                        Object[] x = (Object[]) expected, y = (Object[]) actual;
+                        if (!Arrays.equals((int[]) x[1], (int[]) y[1])) {
+                            return false;
+                        }
+                        double[] lx = (double[]) x[0], ly = (double[]) y[0];
+                        double maxDiff = 0, scale = 1;
+                        for (int i = 0; i < lx.length; i++) {
+                            maxDiff = Math.max(maxDiff, Math.abs(lx[i] - ly[i]));
+                            scale = Math.max(scale, Math.abs(lx[i]));
+                        }
+                        return maxDiff <= TOLERANCE * scale;
+                    }
+                };
+            }
+            case "dijkstra": {
+                int[][] grafo = GraphUtils.generarGrafoAleatorio(n);
+                return new Workload() {
+                    Object serial() {
+                        return DijkstraAlgorithm.dijkstraAllPairsSerial(grafo);
+                    }
+
+                    Object parallel() {
+                        return DijkstraAlgorithm.dijkstraAllPairsParalelo(grafo);
+                    }
+
+                    boolean same(Object expected, Object actual) {
+                        return MatrixUtils.compararMatrices((int[][]) expected, (int[][]) actual);
+                    }
+                };
+            }
+            case "pso": {
+                ParallelPSO.Particle[] initial = ParallelPSO.generarSwarm(n);
+                ParallelPSO.Particle[][] swarm = new ParallelPSO.Particle[1][];
+                return new Workload() {
+                    void reset() {
+                        swarm[0] = ParallelPSO.clonarSwarm(initial);
+                    }
+
+                    Object serial() {
+                        return ParallelPSO.psoSerial(swarm[0]);
+                    }
+
+                    Object parallel() {
+                        return ParallelPSO.psoParallel(swarm[0]);
+                    }
+
+                    boolean same(Object expected, Object actual) {
+                        return ParallelPSO.compararResultados((ParallelPSO.PSOResult) expected,
+                                                              (ParallelPSO.PSOResult) actual, 1e-6);
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("Algoritmo desconocido: " + algorithm);
+        }
+    }
+
+    static double[][] randomMatrix(Random rand, int n) {
+        double[][] m = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m[i][j] = rand.nextDouble() * 10;
+            }
+        }
+        return m;
+    }
+
+    // ------------------------------------------------------------------
+    // Informes
+
+    static void writeCsv(String path, List<Row> rows) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8))) {
+            out.println("algorithm,mode,size,threads,serial_ms,parallel_ms,speedup,efficiency,karp_flatt,verified");
+            for (Row r : rows) {
+                out.printf(Locale.ROOT, "%s,%s,%d,%d,%.3f,%.3f,%.4f,%.4f,%s,%s%n",
+                           r.algorithm, r.mode, r.size, r.threads, r.serialMs, r.parallelMs,
+                           r.speedup, r.efficiency, Double.isNaN(r.karpFlatt) ? "" : format(r.karpFlatt), r.verified);
+            }
+        }
+    }
+
+    static void writeJson(String path, List<Row> rows, boolean weak, int reps) throws IOException {
+        Map<String, String> host = new LinkedHashMap<>();
+        host.put("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        host.put("javaVersion", quote(System.getProperty("java.version")));
+        host.put("os", quote(System.getProperty("os.name") + " " + System.getProperty("os.arch")));
+        host.put("mode", quote(weak ? "weak" : "strong"));
+        host.put("reps", Integer.toString(reps));
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8))) {
+            out.println("{");
+            for (Map.Entry<String, String> e : host.entrySet()) {
+                out.println("  " + quote(e.getKey()) + ": " + e.getValue() + ",");
+            }
+            out.println("  \"results\": [");
+            for (int i = 0; i < rows.size(); i++) {
+                Row r = rows.get(i);
+                out.printf(Locale.ROOT,
+                           "    {\"algorithm\": %s, \"size\": %d, \"threads\": %d, \"serialMs\": %.3f, "
+                           + "\"parallelMs\": %.3f, \"speedup\": %.4f, \"efficiency\": %.4f, "
+                           + "\"karpFlatt\": %s, \"verified\": %s}%s%n",
+                           quote(r.algorithm), r.size, r.threads, r.serialMs, r.parallelMs, r.speedup,
+                           r.efficiency, Double.isNaN(r.karpFlatt) ? "null" : format(r.karpFlatt),
+                           r.verified.equals("skipped") ? "null" : r.verified,
+                           i + 1 < rows.size() ? "," : "");
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+    }
+
+    static String format(double value) {
+        return Double.isNaN(value) ? "-" : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    static int[] parseList(String list) {
+        return Arrays.stream(list.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+}
@@ -0,0 +1,759 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import Parallel_Common.ParallelRuntime;
+
+// Punto de entrada para sistemas con estructura: detecta (o recibe) si la matriz es
+// simétrica definida positiva, de banda o dispersa y usa el método que solo toca
+// la parte útil de la matriz. Las matrices densas generales van a LUParallelSolver.
+public class StructuredSolver {
+    static final int N = 2000;
+    static final int h = ParallelRuntime.workers();
+
+    // Tamaño de bloque de la factorización de Cholesky
+    static final int NB = 64;
+
+    // Una matriz se trata como de banda si kl + ku + 1 <= n / FRACCION_BANDA
+    static final int FRACCION_BANDA = 8;
+    // Una matriz se trata como dispersa si su densidad es menor que este valor
+    static final double DENSIDAD_DISPERSA = 0.05;
+
+    public enum Estructura { GENERAL, SPD, BANDA, DISPERSA }
+
+    public static void main(String[] args) {
+        System.out.println("Tamaño de matriz (N): " + N);
+        System.out.println("Número de hilos (h): " + h);
+
+        double[] b = LUParallelSolver.generarVectorAleatorio(N);
+        probar("SPD", generarSPD(N), b);
+        probar("Tridiagonal", generarBanda(N, 1, 1), b);
+        probar("Dispersa", generarDispersa(N), b);
+        probarSinDensa(b);
+        probar("Dispersa con diagonal nula", generarDiagonalNula(N), b);
+    }
+
+    // Construye la misma tridiagonal por diagonales y por tripletas, sin matriz densa
+    private static void probarSinDensa(double[] b) {
+        double[][] diagonales = {new double[N - 1], new double[N], new double[N - 1]};
+        int[] filas = new int[3 * N - 2];
+        int[] cols = new int[3 * N - 2];
+        double[] vals = new double[3 * N - 2];
+        int t = 0;
+        for (int i = 0; i < N; i++) {
+            diagonales[1][i] = 4;
+            filas[t] = i; cols[t] = i; vals[t++] = 4;
+            if (i + 1 < N) {
+                diagonales[0][i] = -1;
+                diagonales[2][i] = -1;
+                filas[t] = i + 1; cols[t] = i; vals[t++] = -1;
+                filas[t] = i; cols[t] = i + 1; vals[t++] = -1;
+            }
+        }
+        MatrizBanda banda = MatrizBanda.desdeDiagonales(N, 1, 1, diagonales);
+        banda.factorizar();
+        double[] xBanda = banda.resolver(b);
+        double[] xDispersa = LUDispersa.factorizar(MatrizCSR.desdeTripletas(N, filas, cols, vals)).resolver(b);
+        System.out.println("\nTridiagonal sin matriz densa (diagonales / tripletas)");
+        System.out.println("¿Soluciones similares?: " + LUParallelSolver.compararVectores(xBanda, xDispersa));
+    }
+
+    private static void probar(String nombre, double[] a, double[] b) {
+        Estructura e = detectarEstructura(a, N);
+
+        long start = System.nanoTime();
+        double[] x = resolver(e, a, N, b);
+        long end = System.nanoTime();
+
+        double[] lu = a.clone();
+        int[] piv = new int[N];
+        long startDensa = System.nanoTime();
+        LUParallelSolver.luEnSitioParalelo(lu, N, piv);
+        double[] xDensa = LUParallelSolver.resolverLU(lu, N, piv, b);
+        long endDensa = System.nanoTime();
+
+        System.out.println("\n" + nombre + " -> estructura detectada: " + e);
+        System.out.printf("Tiempo estructurado: %.5f segundos\n", (end - start) / 1e9);
+        System.out.printf("Tiempo LU densa:     %.5f segundos\n", (endDensa - startDensa) / 1e9);
+        System.out.println("¿Soluciones similares?: " + LUParallelSolver.compararVectores(x, xDensa));
+    }
+
+    // Clasifica una matriz densa n×n (row-major). La banda se revisa primero porque es
+    // la representación más compacta; SPD se confirma al factorizar (ver resolver).
+    public static Estructura detectarEstructura(double[] a, int n) {
+        int kl = 0;
+        int ku = 0;
+        long nnz = 0;
+        boolean simetrica = true;
+        boolean diagonalPositiva = true;
+
+        for (int i = 0; i < n; i++) {
+            int fila = i * n;
+            if (a[fila + i] <= 0) diagonalPositiva = false;
+            for (int j = 0; j < n; j++) {
+                double v = a[fila + j];
+                if (v != 0) {
+                    nnz++;
+                    if (i - j > kl) kl = i - j;
+                    if (j - i > ku) ku = j - i;
+                }
+                if (simetrica && j > i && v != a[j * n + i]) simetrica = false;
+            }
+        }
+
+        if ((long) (kl + ku + 1) * FRACCION_BANDA <= n) return Estructura.BANDA;
+        if (nnz < DENSIDAD_DISPERSA * n * (double) n) return Estructura.DISPERSA;
+        if (simetrica && diagonalPositiva) return Estructura.SPD;
+        return Estructura.GENERAL;
+    }
+
+    public static double[] resolver(double[] a, int n, double[] b) {
+        return resolver(detectarEstructura(a, n), a, n, b);
+    }
+
+    // Resuelve A·x = b con el método indicado. La matriz de entrada no se modifica.
+    public static double[] resolver(Estructura e, double[] a, int n, double[] b) {
+        switch (e) {
+            case SPD: {
+                double[] l = a.clone();
+                if (choleskyParalelo(l, n)) {
+                    return resolverCholesky(l, n, b);
+                }
+                // No era definida positiva: se continúa con LU general
+                break;
+            }
+            case BANDA: {
+                int[] anchos = anchoDeBanda(a, n);
+                MatrizBanda m = MatrizBanda.desdeDensa(a, n, anchos[0], anchos[1]);
+                m.factorizar();
+                return m.resolver(b);
+            }
+            case DISPERSA: {
+                try {
+                    LUDispersa f = LUDispersa.factorizar(MatrizCSR.desdeDensa(a, n));
+                    return f.resolver(b);
+                } catch (ArithmeticException ex) {
+                    // La LU dispersa no pivotea: con un pivote nulo se continúa con LU general
+                    break;
+                }
+            }
+            default:
+                break;
+        }
+        double[] lu = a.clone();
+        int[] piv = new int[n];
+        LUParallelSolver.luEnSitioParalelo(lu, n, piv);
+        return LUParallelSolver.resolverLU(lu, n, piv, b);
+    }
+
+    // ------------------------------------------------------------------
+    // Cholesky por bloques (variante right-looking) sobre el triángulo inferior de a.
+    // Devuelve false si la matriz no es definida positiva.
+    public static boolean choleskyParalelo(double[] a, int n) {
+        for (int k0 = 0; k0 < n; k0 += NB) {
+            final int k = k0;
+            final int k1 = Math.min(n, k0 + NB);
+
+            // Bloque diagonal: Cholesky sin bloques
+            for (int j = k; j < k1; j++) {
+                int filaJ = j * n;
+                double d = a[filaJ + j];
+                for (int p = k; p < j; p++)
+                    d -= a[filaJ + p] * a[filaJ + p];
+                if (d <= 0) {
+                    return false;
+                }
+                d = Math.sqrt(d);
+                a[filaJ + j] = d;
+                for (int i = j + 1; i < k1; i++) {
+                    int filaI = i * n;
+                    double s = a[filaI + j];
+                    for (int p = k; p < j; p++)
+                        s -= a[filaI + p] * a[filaJ + p];
+                    a[filaI + j] = s / d;
+                }
+            }
+
+            if (k1 >= n) {
+                break;
+            }
+
+            // Panel: L21 = A21 · L11^-T, por tramos de filas en el pool
+            ParallelRuntime.parallelFor(k1, n, (lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int filaI = i * n;
+                    for (int j = k; j < k1; j++) {
+                        int filaJ = j * n;
+                        double s = a[filaI + j];
+                        for (int p = k; p < j; p++)
+                            s -= a[filaI + p] * a[filaJ + p];
+                        a[filaI + j] = s / a[filaJ + j];
+                    }
+                }
+            });
+
+            // Actualización del resto (solo triángulo inferior): A22 -= L21 · L21^T.
+            // El coste de la fila i crece con i; los tramos por defecto (unos 4 por
+            // hilo) y el robo de trabajo reparten la diferencia
+            ParallelRuntime.parallelFor(k1, n, (lo, hi) -> {
+                for (int i = lo; i < hi; i++) {
+                    int filaI = i * n;
+                    for (int j = k1; j <= i; j++) {
+                        int filaJ = j * n;
+                        double s = 0;
+                        for (int p = k; p < k1; p++)
+                            s += a[filaI + p] * a[filaJ + p];
+                        a[filaI + j] -= s;
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    // Resuelve L·L^T·x = b con L en el triángulo inferior de l.
+    public static double[] resolverCholesky(double[] l, int n, double[] b) {
+        double[] x = b.clone();
+
+        for (int i = 0; i < n; i++) {
+            int filaI = i * n;
+            double sum = x[i];
+            for (int j = 0; j < i; j++)
+                sum -= l[filaI + j] * x[j];
+            x[i] = sum / l[filaI + i];
+        }
+
+        for (int i = n - 1; i >= 0; i--) {
+            double xi = x[i] / l[i * n + i];
+            x[i] = xi;
+            // Columna i de L^T = fila i de L: se resta de las incógnitas anteriores
+            int filaI = i * n;
+            for (int j = 0; j < i; j++)
+                x[j] -= l[filaI + j] * xi;
+        }
+
+        return x;
+    }
+
+    // Anchos inferior (kl) y superior (ku) de la banda de una matriz densa.
+    public static int[] anchoDeBanda(double[] a, int n) {
+        int kl = 0;
+        int ku = 0;
+        for (int i = 0; i < n; i++) {
+            int fila = i * n;
+            for (int j = 0; j < n; j++) {
+                if (a[fila + j] != 0) {
+                    if (i - j > kl) kl = i - j;
+                    if (j - i > ku) ku = j - i;
+                }
+            }
+        }
+        return new int[]{kl, ku};
+    }
+
+    // ------------------------------------------------------------------
+    // Matriz de banda con pivoteo parcial. Cada fila i guarda las columnas
+    // [i - kl, i + kl + ku]; las kl posiciones extra a la derecha alojan el
+    // relleno que producen los intercambios de filas (igual que dgbtrf).
+    public static class MatrizBanda {
+        final int n;
+        final int kl;
+        final int ku;
+        final int ancho;
+        final double[] ab;
+        final double[] multiplicadores;
+        final int[] piv;
+
+        // Matriz de banda vacía; se rellena con set sin pasar por una matriz densa.
+        public MatrizBanda(int n, int kl, int ku) {
+            this.n = n;
+            this.kl = kl;
+            this.ku = ku;
+            this.ancho = 2 * kl + ku + 1;
+            this.ab = new double[n * ancho];
+            this.multiplicadores = new double[n * Math.max(1, kl)];
+            this.piv = new int[n];
+        }
+
+        // Construye la matriz a partir de sus diagonales: diagonales[d] es la diagonal
+        // j - i = d - kl (d = 0 la inferior más lejana, d = kl la principal) y su
+        // elemento r corresponde a la fila max(0, kl - d) + r.
+        public static MatrizBanda desdeDiagonales(int n, int kl, int ku, double[][] diagonales) {
+            if (diagonales.length != kl + ku + 1) {
+                throw new IllegalArgumentException("Se esperaban " + (kl + ku + 1) + " diagonales y hay " + diagonales.length);
+            }
+            MatrizBanda m = new MatrizBanda(n, kl, ku);
+            for (int d = 0; d < diagonales.length; d++) {
+                int desplazamiento = d - kl;
+                int i0 = Math.max(0, -desplazamiento);
+                int largo = n - Math.abs(desplazamiento);
+                if (diagonales[d].length < largo) {
+                    throw new IllegalArgumentException("La diagonal " + desplazamiento + " necesita " + largo + " elementos");
+                }
+                for (int r = 0; r < largo; r++)
+                    m.set(i0 + r, i0 + r + desplazamiento, diagonales[d][r]);
+            }
+            return m;
+        }
+
+        public static MatrizBanda desdeDensa(double[] a, int n, int kl, int ku) {
+            MatrizBanda m = new MatrizBanda(n, kl, ku);
+            for (int i = 0; i < n; i++) {
+                int j0 = Math.max(0, i - kl);
+                int j1 = Math.min(n - 1, i + ku);
+                for (int j = j0; j <= j1; j++)
+                    m.set(i, j, a[i * n + j]);
+            }
+            return m;
+        }
+
+        // Acceso sin comprobaciones: j debe estar en [i - kl, i + ku] (o hasta
+        // i + kl + ku durante la factorización, por el relleno).
+        public double get(int i, int j) {
+            return ab[i * ancho + (j - i + kl)];
+        }
+
+        public void set(int i, int j, double v) {
+            ab[i * ancho + (j - i + kl)] = v;
+        }
+
+        public void factorizar() {
+            for (int k = 0; k < n; k++) {
+                int ultimaFila = Math.min(n - 1, k + kl);
+                int ultimaCol = Math.min(n - 1, k + kl + ku);
+
+                int p = k;
+                double max = Math.abs(get(k, k));
+                for (int i = k + 1; i <= ultimaFila; i++) {
+                    double v = Math.abs(get(i, k));
+                    if (v > max) {
+                        max = v;
+                        p = i;
+                    }
+                }
+                if (max == 0) {
+                    throw new ArithmeticException("Matriz de banda singular en la columna " + k);
+                }
+                piv[k] = p;
+                if (p != k) {
+                    for (int j = k; j <= ultimaCol; j++) {
+                        double tmp = get(k, j);
+                        set(k, j, get(p, j));
+                        set(p, j, tmp);
+                    }
+                }
+
+                double pivote = get(k, k);
+                for (int i = k + 1; i <= ultimaFila; i++) {
+                    double m = get(i, k) / pivote;
+                    multiplicadores[k * kl + (i - k - 1)] = m;
+                    set(i, k, 0);
+                    if (m != 0) {
+                        for (int j = k + 1; j <= ultimaCol; j++)
+                            set(i, j, get(i, j) - m * get(k, j));
+                    }
+                }
+            }
+        }
+
+        public double[] resolver(double[] b) {
+            double[] x = b.clone();
+
+            for (int k = 0; k < n; k++) {
+                int p = piv[k];
+                if (p != k) {
+                    double tmp = x[k];
+                    x[k] = x[p];
+                    x[p] = tmp;
+                }
+                int ultimaFila = Math.min(n - 1, k + kl);
+                for (int i = k + 1; i <= ultimaFila; i++)
+                    x[i] -= multiplicadores[k * kl + (i - k - 1)] * x[k];
+            }
+
+            for (int i = n - 1; i >= 0; i--) {
+                int ultimaCol = Math.min(n - 1, i + kl + ku);
+                double sum = x[i];
+                for (int j = i + 1; j <= ultimaCol; j++)
+                    sum -= get(i, j) * x[j];
+                x[i] = sum / get(i, i);
+            }
+
+            return x;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Matriz dispersa en formato CSR (filas comprimidas).
+    public static class MatrizCSR {
+        final int n;
+        final int[] filaPtr;
+        final int[] col;
+        final double[] val;
+
+        public MatrizCSR(int n, int[] filaPtr, int[] col, double[] val) {
+            this.n = n;
+            this.filaPtr = filaPtr;
+            this.col = col;
+            this.val = val;
+        }
+
+        // Construye la matriz a partir de tripletas (fila, columna, valor) en cualquier
+        // orden; las entradas repetidas se suman, como en un ensamblado por elementos.
+        public static MatrizCSR desdeTripletas(int n, int[] filas, int[] cols, double[] vals) {
+            int nt = filas.length;
+            if (cols.length != nt || vals.length != nt) {
+                throw new IllegalArgumentException("filas, cols y vals deben tener la misma longitud");
+            }
+            // Ordenación por filas (conteo) y, dentro de cada fila, por columna
+            int[] filaPtr = new int[n + 1];
+            for (int t = 0; t < nt; t++) {
+                if (filas[t] < 0 || filas[t] >= n || cols[t] < 0 || cols[t] >= n) {
+                    throw new IllegalArgumentException("Tripleta fuera de rango: (" + filas[t] + ", " + cols[t] + ")");
+                }
+                filaPtr[filas[t] + 1]++;
+            }
+            for (int i = 0; i < n; i++)
+                filaPtr[i + 1] += filaPtr[i];
+            int[] siguiente = Arrays.copyOf(filaPtr, n);
+            long[] claves = new long[nt];
+            for (int t = 0; t < nt; t++)
+                claves[siguiente[filas[t]]++] = ((long) cols[t] << 32) | t;
+
+            int[] col = new int[nt];
+            double[] val = new double[nt];
+            int pos = 0;
+            int inicioFila = 0;
+            for (int i = 0; i < n; i++) {
+                Arrays.sort(claves, filaPtr[i], filaPtr[i + 1]);
+                int inicio = pos;
+                for (int p = filaPtr[i]; p < filaPtr[i + 1]; p++) {
+                    int j = (int) (claves[p] >>> 32);
+                    double v = vals[(int) claves[p]];
+                    if (pos > inicio && col[pos - 1] == j) {
+                        val[pos - 1] += v;
+                    } else {
+                        col[pos] = j;
+                        val[pos] = v;
+                        pos++;
+                    }
+                }
+                filaPtr[i] = inicioFila;
+                inicioFila = pos;
+            }
+            filaPtr[n] = pos;
+            return new MatrizCSR(n, filaPtr, Arrays.copyOf(col, pos), Arrays.copyOf(val, pos));
+        }
+
+        public static MatrizCSR desdeDensa(double[] a, int n) {
+            int nnz = 0;
+            for (double v : a)
+                if (v != 0) nnz++;
+            int[] filaPtr = new int[n + 1];
+            int[] col = new int[nnz];
+            double[] val = new double[nnz];
+            int pos = 0;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    double v = a[i * n + j];
+                    if (v != 0) {
+                        col[pos] = j;
+                        val[pos] = v;
+                        pos++;
+                    }
+                }
+                filaPtr[i + 1] = pos;
+            }
+            return new MatrizCSR(n, filaPtr, col, val);
+        }
+
+        // Ordenamiento Cuthill-McKee inverso sobre el patrón simetrizado A + A^T.
+        // Reduce el ancho de banda y, con ello, el relleno de la factorización.
+        public int[] ordenRCM() {
+            int[] grado = new int[n];
+            for (int i = 0; i < n; i++)
+                for (int p = filaPtr[i]; p < filaPtr[i + 1]; p++)
+                    if (col[p] != i) {
+                        grado[i]++;
+                        grado[col[p]]++;
+                    }
+            int[][] vecinos = new int[n][];
+            for (int i = 0; i < n; i++)
+                vecinos[i] = new int[grado[i]];
+            int[] llenos = new int[n];
+            for (int i = 0; i < n; i++)
+                for (int p = filaPtr[i]; p < filaPtr[i + 1]; p++) {
+                    int j = col[p];
+                    if (j != i) {
+                        vecinos[i][llenos[i]++] = j;
+                        vecinos[j][llenos[j]++] = i;
+                    }
+                }
+
+            int[] orden = new int[n];
+            boolean[] visitado = new boolean[n];
+            int cuenta = 0;
+            ArrayDeque<Integer> cola = new ArrayDeque<>();
+
+            while (cuenta < n) {
+                // Cada componente conexa empieza en su vértice de menor grado
+                int inicio = -1;
+                for (int i = 0; i < n; i++)
+                    if (!visitado[i] && (inicio == -1 || grado[i] < grado[inicio]))
+                        inicio = i;
+                visitado[inicio] = true;
+                cola.add(inicio);
+                while (!cola.isEmpty()) {
+                    int u = cola.poll();
+                    orden[cuenta++] = u;
+                    int[] vs = vecinos[u].clone();
+                    Arrays.sort(vs);
+                    Integer[] porGrado = new Integer[vs.length];
+                    int m = 0;
+                    for (int v : vs)
+                        if (!visitado[v]) {
+                            visitado[v] = true;
+                            porGrado[m++] = v;
+                        }
+                    Arrays.sort(porGrado, 0, m, (x, y) -> grado[x] - grado[y]);
+                    for (int i = 0; i < m; i++)
+                        cola.add(porGrado[i]);
+                }
+            }
+
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int tmp = orden[i];
+                orden[i] = orden[j];
+                orden[j] = tmp;
+            }
+            return orden;
+        }
+    }
+
+    // Factorización LU dispersa (variante IKJ por filas) de P·A·P^T, con P dada por RCM.
+    // No pivotea: está pensada para matrices diagonalmente dominantes o SPD dispersas.
+    public static class LUDispersa {
+        final int n;
+        final int[] perm;
+        final int[][] colL;
+        final double[][] valL;
+        final int[][] colU;
+        final double[][] valU;
+
+        LUDispersa(int n, int[] perm, int[][] colL, double[][] valL, int[][] colU, double[][] valU) {
+            this.n = n;
+            this.perm = perm;
+            this.colL = colL;
+            this.valL = valL;
+            this.colU = colU;
+            this.valU = valU;
+        }
+
+        public static LUDispersa factorizar(MatrizCSR a) {
+            int n = a.n;
+            int[] perm = a.ordenRCM();
+            int[] inv = new int[n];
+            for (int i = 0; i < n; i++)
+                inv[perm[i]] = i;
+
+            int[][] colL = new int[n][];
+            double[][] valL = new double[n][];
+            int[][] colU = new int[n][];
+            double[][] valU = new double[n][];
+
+            double[] w = new double[n];
+            boolean[] marca = new boolean[n];
+            int[] patron = new int[n];
+            int[] heap = new int[n];
+
+            for (int i = 0; i < n; i++) {
+                int filaOriginal = perm[i];
+                int nPatron = 0;
+                int nHeap = 0;
+
+                for (int p = a.filaPtr[filaOriginal]; p < a.filaPtr[filaOriginal + 1]; p++) {
+                    int j = inv[a.col[p]];
+                    w[j] = a.val[p];
+                    marca[j] = true;
+                    patron[nPatron++] = j;
+                    if (j < i) nHeap = insertar(heap, nHeap, j);
+                }
+
+                // Eliminar con las filas de U ya calculadas, en orden creciente de columna
+                while (nHeap > 0) {
+                    int k = heap[0];
+                    nHeap = extraer(heap, nHeap);
+                    double lik = w[k] / valU[k][0];
+                    w[k] = lik;
+                    if (lik == 0) continue;
+                    int[] cu = colU[k];
+                    double[] vu = valU[k];
+                    for (int q = 1; q < cu.length; q++) {
+                        int j = cu[q];
+                        if (!marca[j]) {
+                            marca[j] = true;
+                            w[j] = 0;
+                            patron[nPatron++] = j;
+                            if (j < i) nHeap = insertar(heap, nHeap, j);
+                        }
+                        w[j] -= lik * vu[q];
+                    }
+                }
+
+                Arrays.sort(patron, 0, nPatron);
+                int nL = 0;
+                while (nL < nPatron && patron[nL] < i) nL++;
+                if (nL == nPatron || patron[nL] != i || w[i] == 0) {
+                    throw new ArithmeticException("Pivote nulo en la fila " + i + " de la LU dispersa");
+                }
+                colL[i] = Arrays.copyOfRange(patron, 0, nL);
+                valL[i] = new double[nL];
+                for (int q = 0; q < nL; q++)
+                    valL[i][q] = w[patron[q]];
+                colU[i] = Arrays.copyOfRange(patron, nL, nPatron);
+                valU[i] = new double[nPatron - nL];
+                for (int q = nL; q < nPatron; q++)
+                    valU[i][q - nL] = w[patron[q]];
+
+                for (int q = 0; q < nPatron; q++) {
+                    marca[patron[q]] = false;
+                    w[patron[q]] = 0;
+                }
+            }
+
+            return new LUDispersa(n, perm, colL, valL, colU, valU);
+        }
+
+        public double[] resolver(double[] b) {
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++)
+                y[i] = b[perm[i]];
+
+            for (int i = 0; i < n; i++) {
+                double sum = y[i];
+                int[] cl = colL[i];
+                double[] vl = valL[i];
+                for (int q = 0; q < cl.length; q++)
+                    sum -= vl[q] * y[cl[q]];
+                y[i] = sum;
+            }
+
+            for (int i = n - 1; i >= 0; i--) {
+                double sum = y[i];
+                int[] cu = colU[i];
+                double[] vu = valU[i];
+                for (int q = 1; q < cu.length; q++)
+                    sum -= vu[q] * y[cu[q]];
+                y[i] = sum / vu[0];
+            }
+
+            double[] x = new double[n];
+            for (int i = 0; i < n; i++)
+                x[perm[i]] = y[i];
+            return x;
+        }
+
+        // Montículo mínimo de enteros para recorrer columnas en orden creciente
+        private static int insertar(int[] heap, int size, int v) {
+            int i = size++;
+            heap[i] = v;
+            while (i > 0) {
+                int padre = (i - 1) / 2;
+                if (heap[padre] <= heap[i]) break;
+                int tmp = heap[padre];
+                heap[padre] = heap[i];
+                heap[i] = tmp;
+                i = padre;
+            }
+            return size;
+        }
+
+        private static int extraer(int[] heap, int size) {
+            heap[0] = heap[--size];
+            int i = 0;
+            while (true) {
+                int menor = i;
+                int l = 2 * i + 1;
+                int r = l + 1;
+                if (l < size && heap[l] < heap[menor]) menor = l;
+                if (r < size && heap[r] < heap[menor]) menor = r;
+                if (menor == i) break;
+                int tmp = heap[menor];
+                heap[menor] = heap[i];
+                heap[i] = tmp;
+                i = menor;
+            }
+            return size;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Generadores de matrices de prueba
+
+    public static double[] generarSPD(int n) {
+        // B·B^T / n + n·I es simétrica definida positiva
+        double[][] B = LUParallelSolver.generarMatrizAleatoria(n);
+        double[] a = new double[n * n];
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j <= i; j++) {
+                double s = 0;
+                for (int k = 0; k < n; k++)
+                    s += B[i][k] * B[j][k];
+                s /= n;
+                a[i * n + j] = s;
+                a[j * n + i] = s;
+            }
+        for (int i = 0; i < n; i++)
+            a[i * n + i] += n;
+        return a;
+    }
+
+    public static double[] generarBanda(int n, int kl, int ku) {
+        double[] a = new double[n * n];
+        Random rand = new Random(0);
+        for (int i = 0; i < n; i++)
+            for (int j = Math.max(0, i - kl); j <= Math.min(n - 1, i + ku); j++)
+                a[i * n + j] = 1 + rand.nextDouble() * 10;
+        return a;
+    }
+
+    public static double[] generarDispersa(int n) {
+        // Laplaciano de una malla 2D (5 puntos) con los nodos numerados al azar:
+        // disperso, simétrico, diagonalmente dominante y con banda ancha sin reordenar
+        int lado = (int) Math.sqrt(n);
+        int[] etiqueta = new int[n];
+        for (int i = 0; i < n; i++)
+            etiqueta[i] = i;
+        Random rand = new Random(0);
+        for (int i = n - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = etiqueta[i];
+            etiqueta[i] = etiqueta[j];
+            etiqueta[j] = tmp;
+        }
+
+        double[] a = new double[n * n];
+        for (int v = 0; v < n; v++) {
+            int i = etiqueta[v];
+            a[i * n + i] = 4.5;
+            int[] vecinos = {v - lado, v + lado, (v % lado != 0) ? v - 1 : -1, ((v + 1) % lado != 0) ? v + 1 : -1};
+            for (int w : vecinos)
+                if (w >= 0 && w < n)
+                    a[i * n + etiqueta[w]] = -1;
+        }
+        return a;
+    }
+
+    public static double[] generarDiagonalNula(int n) {
+        // Diagonal 2 con las filas 0 y n-1 intercambiadas: dispersa y no singular,
+        // pero con ceros en la diagonal que la LU dispersa sin pivoteo no admite
+        double[] a = new double[n * n];
+        for (int i = 0; i < n; i++)
+            a[i * n + i] = 2;
+        a[0] = 0;
+        a[(n - 1) * n + n - 1] = 0;
+        a[n - 1] = 2;
+        a[(n - 1) * n] = 2;
+        return a;
+    }
+}
@@ -0,0 +1,288 @@
+import java.util.Random;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Núcleos vectoriales explícitos (jdk.incubator.vector) para las sumas,
+ * restas y combinaciones de la recursión de Strassen/Winograd, para el
+ * micro-núcleo 4 x 4 de GemmKernel y para el micro-núcleo 4 x 8 en float
+ * de FloatMatrixMultiplication, usando FMA.
+ *
+ * Se activan solo si el módulo está en la capa de arranque
+ * (java --add-modules jdk.incubator.vector), el procesador tiene vectores
+ * de al menos 4 doubles y no se desactivan con -Dmatrix.vector=false; en
+ * otro caso los llamadores usan sus bucles escalares. Los tipos del módulo
+ * solo se tocan dentro de Simd, que no se carga si ENABLED es falso.
+ *
+ * Compilar: javac --add-modules jdk.incubator.vector *.java
+ */
+public class VectorKernels {
+
+    public static final boolean ENABLED = detect();
+
+    private static boolean detect() {
+        if (!Boolean.parseBoolean(System.getProperty("matrix.vector", "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return Simd.PREFERRED.length() >= GemmKernel.NR;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * dst = x + sign * y sobre vistas de rows x cols
+     */
+    static void combine(double[] dst, int dOff, int ldd,
+                        double[] x, int xOff, int ldx,
+                        double[] y, int yOff, int ldy,
+                        int rows, int cols, double sign) {
+        Simd.combine(dst, dOff, ldd, x, xOff, ldx, y, yOff, ldy, rows, cols, sign);
+    }
+
+    /**
+     * dst += sign * src sobre vistas de rows x cols
+     */
+    static void accumulate(double[] dst, int dOff, int ldd,
+                           double[] src, int sOff, int lds,
+                           int rows, int cols, double sign) {
+        Simd.accumulate(dst, dOff, ldd, src, sOff, lds, rows, cols, sign);
+    }
+
+    /**
+     * C = A + sign * B para matrices dentadas cuadradas
+     */
+    static double[][] combine(double[][] A, double[][] B, double sign) {
+        int n = A.length;
+        double[][] C = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            Simd.combine(C[i], 0, 0, A[i], 0, 0, B[i], 0, 0, 1, n, sign);
+        }
+        return C;
+    }
+
+    /**
+     * Micro-núcleo 4 x 4 completo de GemmKernel
+     */
+    static void microKernel(int kc, double[] pa, int aOff, double[] pb, int bOff,
+                            double[] c, int cOff, int ldc) {
+        Simd.microKernel(kc, pa, aOff, pb, bOff, c, cOff, ldc);
+    }
+
+    /**
+     * Micro-núcleo 4 x 8 completo de FloatMatrixMultiplication en float
+     */
+    static void microKernelFloat(int kc, float[] pa, int aOff, float[] pb, int bOff,
+                                 float[] c, int cOff, int ldc) {
+        Simd.microKernelFloat(kc, pa, aOff, pb, bOff, c, cOff, ldc);
+    }
+
+    /**
+     * Implementaciones con el módulo de vectores. Es una clase aparte para
+     * que VectorKernels se cargue y verifique aunque el módulo no esté.
+     * Especies: la preferida para recorridos de filas y las de 256 bits
+     * (4 doubles u 8 floats) para una fila del micro-bloque MR x NR
+     */
+    private static final class Simd {
+        static final VectorSpecies<Double> PREFERRED = DoubleVector.SPECIES_PREFERRED;
+        static final VectorSpecies<Double> TILE = DoubleVector.SPECIES_256;
+        static final VectorSpecies<Float> FLOAT_TILE = FloatVector.SPECIES_256;
+
+        static String describe() {
+            return PREFERRED.toString();
+        }
+
+        /**
+         * dst = x + sign * y sobre vistas de rows x cols
+         */
+        static void combine(double[] dst, int dOff, int ldd,
+                            double[] x, int xOff, int ldx,
+                            double[] y, int yOff, int ldy,
+                            int rows, int cols, double sign) {
+            VectorSpecies<Double> species = Simd.PREFERRED;
+            DoubleVector vsign = DoubleVector.broadcast(species, sign);
+            int bound = species.loopBound(cols);
+            for (int i = 0; i < rows; i++) {
+                int di = dOff + i * ldd;
+                int xi = xOff + i * ldx;
+                int yi = yOff + i * ldy;
+                int j = 0;
+                for (; j < bound; j += species.length()) {
+                    DoubleVector vx = DoubleVector.fromArray(species, x, xi + j);
+                    DoubleVector vy = DoubleVector.fromArray(species, y, yi + j);
+                    vy.fma(vsign, vx).intoArray(dst, di + j);
+                }
+                for (; j < cols; j++) {
+                    dst[di + j] = x[xi + j] + sign * y[yi + j];
+                }
+            }
+        }
+
+        /**
+         * dst += sign * src sobre vistas de rows x cols
+         */
+        static void accumulate(double[] dst, int dOff, int ldd,
+                               double[] src, int sOff, int lds,
+                               int rows, int cols, double sign) {
+            VectorSpecies<Double> species = Simd.PREFERRED;
+            DoubleVector vsign = DoubleVector.broadcast(species, sign);
+            int bound = species.loopBound(cols);
+            for (int i = 0; i < rows; i++) {
+                int di = dOff + i * ldd;
+                int si = sOff + i * lds;
+                int j = 0;
+                for (; j < bound; j += species.length()) {
+                    DoubleVector vd = DoubleVector.fromArray(species, dst, di + j);
+                    DoubleVector vs = DoubleVector.fromArray(species, src, si + j);
+                    vs.fma(vsign, vd).intoArray(dst, di + j);
+                }
+                for (; j < cols; j++) {
+                    dst[di + j] += sign * src[si + j];
+                }
+            }
+        }
+
+        /**
+         * Micro-núcleo 4 x 4 completo: cada fila del bloque de C es un vector de
+         * 4 doubles que acumula a_i * fila de B con FMA, y se suma a C al final
+         */
+        static void microKernel(int kc, double[] pa, int aOff, double[] pb, int bOff,
+                                double[] c, int cOff, int ldc) {
+            VectorSpecies<Double> species = Simd.TILE;
+            DoubleVector c0 = DoubleVector.zero(species);
+            DoubleVector c1 = DoubleVector.zero(species);
+            DoubleVector c2 = DoubleVector.zero(species);
+            DoubleVector c3 = DoubleVector.zero(species);
+
+            int ai = aOff;
+            int bi = bOff;
+            for (int p = 0; p < kc; p++, ai += GemmKernel.MR, bi += GemmKernel.NR) {
+                DoubleVector b = DoubleVector.fromArray(species, pb, bi);
+                c0 = DoubleVector.broadcast(species, pa[ai]).fma(b, c0);
+                c1 = DoubleVector.broadcast(species, pa[ai + 1]).fma(b, c1);
+                c2 = DoubleVector.broadcast(species, pa[ai + 2]).fma(b, c2);
+                c3 = DoubleVector.broadcast(species, pa[ai + 3]).fma(b, c3);
+            }
+
+            int r0 = cOff, r1 = r0 + ldc, r2 = r1 + ldc, r3 = r2 + ldc;
+            c0.add(DoubleVector.fromArray(species, c, r0)).intoArray(c, r0);
+            c1.add(DoubleVector.fromArray(species, c, r1)).intoArray(c, r1);
+            c2.add(DoubleVector.fromArray(species, c, r2)).intoArray(c, r2);
+            c3.add(DoubleVector.fromArray(species, c, r3)).intoArray(c, r3);
+        }
+
+        /**
+         * Micro-núcleo 4 x 8 en float: igual que el de double, con filas de
+         * 8 floats en el mismo ancho de vector
+         */
+        static void microKernelFloat(int kc, float[] pa, int aOff, float[] pb, int bOff,
+                                     float[] c, int cOff, int ldc) {
+            VectorSpecies<Float> species = Simd.FLOAT_TILE;
+            FloatVector c0 = FloatVector.zero(species);
+            FloatVector c1 = FloatVector.zero(species);
+            FloatVector c2 = FloatVector.zero(species);
+            FloatVector c3 = FloatVector.zero(species);
+
+            int ai = aOff;
+            int bi = bOff;
+            for (int p = 0; p < kc; p++, ai += FloatMatrixMultiplication.MR, bi += FloatMatrixMultiplication.NR) {
+                FloatVector b = FloatVector.fromArray(species, pb, bi);
+                c0 = FloatVector.broadcast(species, pa[ai]).fma(b, c0);
+                c1 = FloatVector.broadcast(species, pa[ai + 1]).fma(b, c1);
+                c2 = FloatVector.broadcast(species, pa[ai + 2]).fma(b, c2);
+                c3 = FloatVector.broadcast(species, pa[ai + 3]).fma(b, c3);
+            }
+
+            int r0 = cOff, r1 = r0 + ldc, r2 = r1 + ldc, r3 = r2 + ldc;
+            c0.add(FloatVector.fromArray(species, c, r0)).intoArray(c, r0);
+            c1.add(FloatVector.fromArray(species, c, r1)).intoArray(c, r1);
+            c2.add(FloatVector.fromArray(species, c, r2)).intoArray(c, r2);
+            c3.add(FloatVector.fromArray(species, c, r3)).intoArray(c, r3);
+        }
+    }
+
+    /**
+     * Compara cada núcleo vectorial con su bucle escalar equivalente
+     */
+    public static void main(String[] args) {
+        System.out.println("Núcleos vectoriales: " + (ENABLED ? "activos (" + Simd.describe() + ")" : "desactivados"));
+        if (!ENABLED) {
+            System.out.println("Ejecutar con --add-modules jdk.incubator.vector para activarlos");
+            return;
+        }
+
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 515;
+        Random rand = new Random(0);
+        double[] x = randomFlat(rand, n * n);
+        double[] y = randomFlat(rand, n * n);
+
+        double[] expected = new double[n * n];
+        double[] actual = new double[n * n];
+        for (int i = 0; i < n * n; i++) {
+            expected[i] = x[i] - y[i];
+        }
+        combine(actual, 0, n, x, 0, n, y, 0, n, n, n, -1);
+        report("combine", expected, actual);
+
+        System.arraycopy(x, 0, actual, 0, n * n);
+        for (int i = 0; i < n * n; i++) {
+            expected[i] = x[i] + 0.5 * y[i];
+        }
+        accumulate(actual, 0, n, y, 0, n, n, n, 0.5);
+        report("accumulate", expected, actual);
+
+        // Producto completo por GemmKernel (micro-núcleo vectorial) frente al triple bucle
+        for (int i = 0; i < n; i++) {
+            for (int p = 0; p < n; p++) {
+                double xip = x[i * n + p];
+                for (int j = 0; j < n; j++) {
+                    expected[i * n + j] = (p == 0 ? 0 : expected[i * n + j]) + xip * y[p * n + j];
+                }
+            }
+        }
+        GemmKernel.multiply(x, 0, n, y, 0, n, actual, 0, n, n, n, n, false);
+        report("multiply", expected, actual);
+
+        // Mismo producto en float (micro-núcleo 4 x 8), con tolerancia de precisión simple
+        float[] xf = new float[n * n];
+        float[] yf = new float[n * n];
+        float[] cf = new float[n * n];
+        for (int i = 0; i < n * n; i++) {
+            xf[i] = (float) x[i];
+            yf[i] = (float) y[i];
+        }
+        FloatMatrixMultiplication.gemm(xf, 0, n, yf, 0, n, cf, 0, n, n, n, n, false, false);
+        for (int i = 0; i < n * n; i++) {
+            actual[i] = cf[i];
+        }
+        report("multiplyFloat", expected, actual, 1e-5);
+    }
+
+    private static void report(String name, double[] expected, double[] actual) {
+        report(name, expected, actual, 1e-9);
+    }
+
+    private static void report(String name, double[] expected, double[] actual, double tolerance) {
+        double maxDiff = 0;
+        double scale = 1;
+        for (int i = 0; i < expected.length; i++) {
+            maxDiff = Math.max(maxDiff, Math.abs(expected[i] - actual[i]));
+            scale = Math.max(scale, Math.abs(expected[i]));
+        }
+        System.out.println("  - " + name + " igual a escalar: " + (maxDiff <= tolerance * scale) + " (diferencia máxima " + maxDiff + ")");
+    }
+
+    private static double[] randomFlat(Random rand, int size) {
+        double[] v = new double[size];
+        for (int i = 0; i < size; i++) {
+            v[i] = rand.nextDouble() * 10;
+        }
+        return v;
+    }
+}
@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ejecuta las pruebas JMH con el perfilador de GC/asignaciones y guarda los
+ * resultados en JSON para compararlos entre versiones.
+ *
+ * Las variantes paralelas (las que reciben Workers) se repiten una vez por
+ * número de hilos, cada una en forks con -Dparallel.workers igual a ese
+ * valor; las seriales se ejecutan una sola vez con un hilo.
+ *
+ * Uso: java benchmarks.BenchmarkRunner [expresión regular] [archivo.json] [hilos]
+ * (por defecto todas las pruebas, jmh-result.json y 1,2,4,8)
+ */
+public class BenchmarkRunner {
+
+    // Último segmento del nombre sin "parallel"/"Paralelo": variantes seriales
+    private static final String SERIALES = "^.*\\.(?!\\w*[Pp]aral)\\w*$";
+    // Último segmento con "parallel"/"Paralelo": variantes que usan Workers
+    private static final String PARALELAS = "^.*\\.\\w*[Pp]aral\\w*$";
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        String output = args.length > 1 ? args[1] : "jmh-result.json";
+        String[] hilos = (args.length > 2 ? args[2] : "1,2,4,8").split(",");
+
+        List<RunResult> resultados = new ArrayList<>();
+        resultados.addAll(ejecutar(opciones(include, 1).exclude(PARALELAS)));
+        for (String p : hilos) {
+            int workers = Integer.parseInt(p.trim());
+            resultados.addAll(ejecutar(opciones(include, workers)
+                    .exclude(SERIALES)
+                    .param("workers", String.valueOf(workers))));
+        }
+        if (resultados.isEmpty()) {
+            throw new NoBenchmarksException();
+        }
+
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, new File(output).getAbsolutePath())
+                .writeOut(resultados);
+        System.out.println("Resultados en " + output);
+    }
+
+    private static ChainedOptionsBuilder opciones(String include, int workers) {
+        // Se suma a los jvmArgsAppend de @Fork (--add-modules)
+        return new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-Dparallel.workers=" + workers);
+    }
+
+    private static Collection<RunResult> ejecutar(ChainedOptionsBuilder options) throws RunnerException {
+        try {
+            return new Runner(options.build()).run();
+        } catch (NoBenchmarksException e) {
+            // Ninguna prueba de esta pasada coincide con el filtro
+            return List.of();
+        }
+    }
+}
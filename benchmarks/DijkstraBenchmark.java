@@ -0,0 +1,50 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Parallel_Dijkstra.DijkstraAlgorithm;
+import Parallel_Dijkstra.GraphUtils;
+
+/**
+ * Dijkstra de todos los pares, serial y paralelo, sobre grafos densos aleatorios
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DijkstraBenchmark {
+
+    @Param({"250", "500", "1000"})
+    int n;
+
+    int[][] grafo;
+
+    @Setup
+    public void setup() {
+        grafo = GraphUtils.generarGrafoAleatorio(n);
+    }
+
+    @Benchmark
+    public int[][] serial() {
+        return DijkstraAlgorithm.dijkstraAllPairsSerial(grafo);
+    }
+
+    @Benchmark
+    public int[][] parallel(Workers w) {
+        return DijkstraAlgorithm.dijkstraAllPairsParalelo(grafo);
+    }
+}
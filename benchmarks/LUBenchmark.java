@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Factorizaciones de LUParallelSolver. Las versiones en sitio trabajan
+ * sobre una copia nueva de la matriz en cada invocación
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class LUBenchmark {
+
+    private static final String LU = "LUParallelSolver";
+    private static final MethodHandle GENERAR = Targets.find(LU, "generarMatrizAleatoria", 1);
+    private static final MethodHandle APLANAR = Targets.find(LU, "aplanar", 1);
+    private static final MethodHandle LU_SERIAL = Targets.find(LU, "luSerial", 1);
+    private static final MethodHandle LU_PARALELO = Targets.find(LU, "luParalelo", 1);
+    private static final MethodHandle EN_SITIO = Targets.find(LU, "luEnSitio", 3);
+    private static final MethodHandle EN_SITIO_PARALELO = Targets.find(LU, "luEnSitioParalelo", 3);
+
+    @Param({"500", "1000", "2000"})
+    int n;
+
+    double[][] A;
+    double[] flat;
+    double[] work;
+    int[] piv;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        A = (double[][]) (Object) GENERAR.invokeExact((Object) n);
+        flat = (double[]) (Object) APLANAR.invokeExact((Object) A);
+        work = new double[n * n];
+        piv = new int[n];
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(flat, 0, work, 0, flat.length);
+    }
+
+    @Benchmark
+    public Object luSerial() throws Throwable {
+        return (Object) LU_SERIAL.invokeExact((Object) A);
+    }
+
+    @Benchmark
+    public Object luParalelo(Workers w) throws Throwable {
+        return (Object) LU_PARALELO.invokeExact((Object) A);
+    }
+
+    @Benchmark
+    public double[] luEnSitio() throws Throwable {
+        Object unused = (Object) EN_SITIO.invokeExact((Object) work, (Object) n, (Object) piv);
+        return work;
+    }
+
+    @Benchmark
+    public double[] luEnSitioParalelo(Workers w) throws Throwable {
+        Object unused = (Object) EN_SITIO_PARALELO.invokeExact((Object) work, (Object) n, (Object) piv);
+        return work;
+    }
+}
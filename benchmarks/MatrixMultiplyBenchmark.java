@@ -0,0 +1,88 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Variantes de CoppersmithWinogradMatrixMultiplication y el núcleo GEMM
+ * sobre matrices n x n aleatorias (mismas entradas en cada invocación)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MatrixMultiplyBenchmark {
+
+    private static final String CW = "CoppersmithWinogradMatrixMultiplication";
+    private static final MethodHandle GEMM = Targets.find("GemmKernel", "multiply", 2);
+    private static final MethodHandle SEQUENTIAL = Targets.find(CW, "multiplySequential", 2);
+    private static final MethodHandle SEQUENTIAL_VIEWS = Targets.find(CW, "multiplySequentialViews", 2);
+    private static final MethodHandle WINOGRAD = Targets.find(CW, "multiplyWinograd", 2);
+    private static final MethodHandle FORK_JOIN = Targets.find(CW, "multiplyParallel", 2);
+    private static final MethodHandle THREADS = Targets.find(CW, "multiplyParallelTraditional", 2);
+
+    // Potencias de 2: multiplySequential no rellena tamaños arbitrarios
+    @Param({"256", "512", "1024"})
+    int size;
+
+    double[][] A;
+    double[][] B;
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(42);
+        A = new double[size][size];
+        B = new double[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                A[i][j] = rand.nextDouble() * 10;
+                B[i][j] = rand.nextDouble() * 10;
+            }
+        }
+    }
+
+    @Benchmark
+    public Object gemm() throws Throwable {
+        return (Object) GEMM.invokeExact((Object) A, (Object) B);
+    }
+
+    @Benchmark
+    public Object sequential() throws Throwable {
+        return (Object) SEQUENTIAL.invokeExact((Object) A, (Object) B);
+    }
+
+    @Benchmark
+    public Object sequentialViews() throws Throwable {
+        return (Object) SEQUENTIAL_VIEWS.invokeExact((Object) A, (Object) B);
+    }
+
+    @Benchmark
+    public Object winograd() throws Throwable {
+        return (Object) WINOGRAD.invokeExact((Object) A, (Object) B);
+    }
+
+    @Benchmark
+    public Object parallelForkJoin(Workers w) throws Throwable {
+        return (Object) FORK_JOIN.invokeExact((Object) A, (Object) B);
+    }
+
+    @Benchmark
+    public Object parallelThreads(Workers w) throws Throwable {
+        return (Object) THREADS.invokeExact((Object) A, (Object) B);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PSO serial y paralelo (MAX_ITERATIONS iteraciones por invocación). Cada
+ * invocación parte de una copia del mismo swarm inicial
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class PSOBenchmark {
+
+    private static final String PSO = "ParallelPSO";
+    private static final MethodHandle GENERAR = Targets.find(PSO, "generarSwarm", 1);
+    private static final MethodHandle CLONAR = Targets.find(PSO, "clonarSwarm", 1);
+    private static final MethodHandle SERIAL = Targets.find(PSO, "psoSerial", 1);
+    private static final MethodHandle PARALELO = Targets.find(PSO, "psoParallel", 1);
+
+    @Param({"1000", "10000"})
+    int particles;
+
+    Object initial;
+    Object swarm;
+
+    @Setup(Level.Trial)
+    public void setup() throws Throwable {
+        initial = (Object) GENERAR.invokeExact((Object) particles);
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() throws Throwable {
+        swarm = (Object) CLONAR.invokeExact(initial);
+    }
+
+    @Benchmark
+    public Object serial() throws Throwable {
+        return (Object) SERIAL.invokeExact(swarm);
+    }
+
+    @Benchmark
+    public Object parallel(Workers w) throws Throwable {
+        return (Object) PARALELO.invokeExact(swarm);
+    }
+}
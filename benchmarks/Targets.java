@@ -0,0 +1,38 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Acceso a los métodos estáticos de las clases del paquete por defecto
+ * (LUParallelSolver, ParallelPSO, ...), que no se pueden importar desde un
+ * paquete con nombre y JMH no admite pruebas sin paquete. Cada método se
+ * resuelve una vez como MethodHandle de tipo genérico (Object...), que al
+ * guardarse en un campo static final el JIT trata como constante.
+ */
+final class Targets {
+
+    private Targets() {
+    }
+
+    /**
+     * Método público estático de la clase por nombre y número de parámetros
+     */
+    static MethodHandle find(String className, String methodName, int arity) {
+        try {
+            Class<?> owner = Class.forName(className);
+            for (Method m : owner.getMethods()) {
+                if (m.getName().equals(methodName) && m.getParameterCount() == arity
+                        && Modifier.isStatic(m.getModifiers())) {
+                    return MethodHandles.publicLookup().unreflect(m).asType(MethodType.genericMethodType(arity));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo resolver " + className + "." + methodName, e);
+        }
+        throw new IllegalArgumentException("No existe " + className + "." + methodName + " con " + arity + " parámetros");
+    }
+}
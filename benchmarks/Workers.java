@@ -0,0 +1,32 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Parallel_Common.ParallelRuntime;
+
+/**
+ * Número de hilos de las variantes paralelas. El pool de ParallelRuntime se
+ * fija al arrancar la JVM con -Dparallel.workers, así que el parámetro solo
+ * etiqueta el resultado: cada valor necesita su propio fork con esa propiedad.
+ * BenchmarkRunner lanza un fork por valor; con JMH directo hay que pasar
+ * -p workers=N -jvmArgsAppend -Dparallel.workers=N
+ */
+@State(Scope.Benchmark)
+public class Workers {
+
+    @Param({"1", "2", "4", "8"})
+    int workers;
+
+    @Setup(Level.Trial)
+    public void check() {
+        if (ParallelRuntime.workers() != workers) {
+            throw new IllegalStateException("workers=" + workers + " pero el fork tiene "
+                    + ParallelRuntime.workers() + " hilos; ejecutar con BenchmarkRunner o "
+                    + "-jvmArgsAppend -Dparallel.workers=" + workers);
+        }
+    }
+}